@@ -1,30 +1,46 @@
 package interpreter.core;
 
 import scheme.*;
+import scheme.analysis.CallSites;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
 public class Main {
-    private static final Environment ENVIRONMENT_GLOBAL = new DefaultEnvironment(Environment.EMPTY);
+    private static final Environment ENVIRONMENT_GLOBAL = new GlobalEnvironment();
+    private static final Evaluator EVALUATOR = Evaluators.configured();
 
     private static final String PROMPT_IN = "λ> ";
     private static final String PROMPT_OUT = "=> ";
     private static final String PROMPT_ERR = "~> ";
 
+    /**
+     * Returns the next expression, reporting the input the reader rejects and reading on past it.
+     */
+    private static Expression read(ExpressionReader reader) throws IOException {
+        while (true) {
+            try {
+                return reader.nextExpression();
+            } catch (RuntimeException exception) {
+                System.out.printf("%s%s%n", PROMPT_ERR, exception.getMessage());
+                System.out.print(PROMPT_IN);
+            }
+        }
+    }
+
     public static void main(String[] args) {
         try (ExpressionReader reader =
                      new ExpressionReader(
                              new BufferedReader(
                                      new InputStreamReader(System.in)),
-                             Syntax.PROGRAM)) {
+                             SyntaxReader.Grammar.PROGRAM)) {
             System.out.print(PROMPT_IN);
 
             Expression expression;
-            while ((expression = reader.nextExpression()) != null) {
+            while ((expression = read(reader)) != null) {
                 try {
-                    Expression evaluated = expression.eval(ENVIRONMENT_GLOBAL);
+                    Expression evaluated = EVALUATOR.eval(expression, ENVIRONMENT_GLOBAL);
                     System.out.printf("%s%s%n", PROMPT_OUT, evaluated);
                 } catch (RuntimeException exception) {
                     System.out.printf("%s%s%n", PROMPT_ERR, exception.getMessage());
@@ -37,5 +53,9 @@ public class Main {
         }
 
         System.out.println("Done!");
+
+        if (CallSites.isEnabled()) {
+            System.err.println(CallSites.report());
+        }
     }
 }
@@ -1,6 +1,7 @@
 package interpreter.self;
 
 import scheme.*;
+import scheme.analysis.CallSites;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -10,7 +11,21 @@ import java.nio.file.Paths;
 public final class Main {
     private static final String SRC_INTERPRETER = "src/main/scheme/interpreter/applicative.scm";
 
-    private static final Environment ENVIRONMENT_GLOBAL = new DefaultEnvironment(Environment.EMPTY);
+    private static final Environment ENVIRONMENT_GLOBAL = new GlobalEnvironment();
+    private static final Evaluator EVALUATOR = Evaluators.configured();
+
+    /**
+     * Returns the next expression, reporting the input the reader rejects and reading on past it.
+     */
+    private static Expression read(ExpressionReader reader) throws IOException {
+        while (true) {
+            try {
+                return reader.nextExpression();
+            } catch (RuntimeException exception) {
+                System.out.printf("%s%n", exception.getMessage());
+            }
+        }
+    }
 
     public static void main(String... args) {
         try (ExpressionReader reader =
@@ -18,11 +33,11 @@ public final class Main {
                              Files.newBufferedReader(
                                      Paths.get(SRC_INTERPRETER),
                                      StandardCharsets.UTF_8),
-                             Syntax.PROGRAM)) {
+                             SyntaxReader.Grammar.PROGRAM)) {
             Expression expression;
-            while ((expression = reader.nextExpression()) != null) {
+            while ((expression = read(reader)) != null) {
                 try {
-                    Expression evaluated = expression.eval(ENVIRONMENT_GLOBAL);
+                    Expression evaluated = EVALUATOR.eval(expression, ENVIRONMENT_GLOBAL);
                     if (Utilities.isNull(evaluated)) {
                         /*NOP*/
                     } else {
@@ -37,5 +52,9 @@ public final class Main {
         }
 
 //        System.out.println("Done!");
+
+        if (CallSites.isEnabled()) {
+            System.err.println(CallSites.report());
+        }
     }
 }
@@ -0,0 +1,49 @@
+package scheme;
+
+import scheme.expression.SymbolExpression;
+
+/**
+ * The binding of a variable in a {@link GlobalEnvironment}. A cell is created once per variable
+ * and updated in place by `define` and `set!`, so a reference that has found the cell reads the current value
+ * with a single field access.
+ */
+public final class Cell {
+    static Cell make(SymbolExpression variable) {
+        return new Cell(variable);
+    }
+
+
+    private final SymbolExpression variable;
+
+    private Expression value;
+
+    private Cell(SymbolExpression variable) {
+        this.variable = variable;
+    }
+
+    public SymbolExpression variable() {
+        return variable;
+    }
+
+    public boolean isBound() {
+        return value != null;
+    }
+
+    public Expression value() {
+        Expression result = value;
+        if (result == null) {
+            throw new RuntimeException(String.format("Unbound variable: `%s`", variable));
+        }
+
+        return result;
+    }
+
+    void assign(Expression value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[cell %s]", variable);
+    }
+}
@@ -14,19 +14,21 @@ public final class Core {
     public static final Expression FALSE = SymbolExpression.make("false");
     public static final Expression TRUE = SymbolExpression.make("true");
 
-    public static final Procedure NOT = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isTrue(arguments.expressions().get(0)) ? FALSE : TRUE);
+    public static final Procedure NOT = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isTrue(x) ? FALSE : TRUE);
 
 
     private static String toStringUnquoted(Expression expression) {
         if (expression instanceof StringExpression) {
             return ((StringExpression) expression).value();
+        } else if (expression instanceof CharacterExpression) {
+            return String.valueOf(((CharacterExpression) expression).value());
         }
 
         return expression.toString();
     }
 
-    private static Expression error(List<Expression> expressions) {
+    private static Expression error(Expression[] expressions) {
         StringBuilder result = new StringBuilder("Error: ");
 
         String delimiter = "";
@@ -38,300 +40,662 @@ public final class Core {
         throw new RuntimeException(result.toString());
     }
 
-    public static final Procedure ERROR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> error(arguments.expressions()));
+    public static final Procedure ERROR = PrimitiveProcedure.makeN(Core::error);
 
 
-    public static final Procedure APPLY = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                Procedure procedure = Utilities.asProcedure(arguments.expressions().get(0));
-                CombinationExpression args = (CombinationExpression) arguments.expressions().get(1);
+    public static final Procedure APPLY = PrimitiveProcedure.make2(
+            (Expression procedure, Expression arguments) ->
+                    Utilities.asProcedure(procedure).apply(Utilities.listToArray(arguments)),
+            (Expression procedure, Expression arguments) ->
+                    Utilities.asProcedure(procedure).applyTail(Utilities.listToArray(arguments)));
 
-                return procedure.apply(args);
+
+    public static final Procedure IS_NULL = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isNull(x) ? TRUE : FALSE);
+
+
+    public static final Procedure IS_PAIR = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isPair(x) ? TRUE : FALSE);
+
+    private static Expression cons(Expression car, Expression cdr) {
+        return cdr instanceof CombinationExpression
+                ? CombinationExpression.cons(car, (CombinationExpression) cdr)
+                : Pair.make(car, cdr);
+    }
+
+    public static final Procedure CONS = PrimitiveProcedure.make2(Core::cons);
+
+    public static final Procedure CAR = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.asPair(x).car());
+
+    public static final Procedure CDR = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.asPair(x).cdr());
+
+    public static final Procedure SET_CAR = PrimitiveProcedure.make2(
+            (Expression pair, Expression value) -> {
+                Utilities.asPair(pair).car(value);
+                return UnitExpression.make();
+            });
+
+    public static final Procedure SET_CDR = PrimitiveProcedure.make2(
+            (Expression pair, Expression value) -> {
+                Utilities.asPair(pair).cdr(value);
+                return UnitExpression.make();
             });
 
 
-    public static final Procedure IS_NULL = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isNull(arguments.expressions().get(0)) ? TRUE : FALSE);
+
+    public static final Procedure IS_LIST = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isList(x) ? TRUE : FALSE);
+
+    public static final Procedure LIST = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> CombinationExpression.make(Arrays.asList(arguments)));
+
+
+    private static IntegralExpression length(Expression expression) {
+        if (!Utilities.isList(expression)) {
+            throw new RuntimeException("Malformed list");
+        }
+
+        long result = 0;
+        for (Expression rest = expression; !Utilities.isNull(rest); rest = ((Pair) rest).cdr()) {
+            ++result;
+        }
+
+        return IntegralExpression.make(result);
+    }
+
+    public static final Procedure LENGTH = PrimitiveProcedure.make1(Core::length);
+
+
+    public static final Procedure IS_SYMBOL = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isSymbol(x) ? TRUE : FALSE);
 
 
-    public static final Procedure IS_PAIR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isPair(arguments.expressions().get(0)) ? TRUE : FALSE);
+    public static final Procedure IS_EQ = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> Equivalence.EQ.test(x, y) ? TRUE : FALSE);
 
-    private static <X> List<X> cons(X x, List<X> rest) {
-        List<X> result = new LinkedList<>();
-        result.add(x);
-        result.addAll(rest);
+    public static final Procedure IS_EQV = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> Equivalence.EQV.test(x, y) ? TRUE : FALSE);
+
+    public static final Procedure IS_EQUAL = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> Equivalence.EQUAL.test(x, y) ? TRUE : FALSE);
+
+
+    public static final Procedure IS_NUMBER = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isNumber(x) ? TRUE : FALSE);
+
+    private static int compareNumbers(Expression first, Expression other) {
+        return Numbers.compare(first, other);
+    }
+
+    public static final Procedure LESS_THAN = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> compareNumbers(x, y) < 0 ? TRUE : FALSE);
+
+    public static final Procedure LESS_THAN_OR_EQUAL_TO = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> compareNumbers(x, y) <= 0 ? TRUE : FALSE);
+
+    public static final Procedure EQUAL_TO = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> compareNumbers(x, y) == 0 ? TRUE : FALSE);
+
+    public static final Procedure GREATER_THAN_OR_EQUAL_TO = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> compareNumbers(x, y) >= 0 ? TRUE : FALSE);
+
+    public static final Procedure GREATER_THAN = PrimitiveProcedure.make2(
+            (Expression x, Expression y) -> compareNumbers(x, y) > 0 ? TRUE : FALSE);
+
+
+    private static Expression addNumbers(Expression[] expressions) {
+        Expression result = IntegralExpression.make(0);
+        for (Expression expression : expressions) {
+            result = Numbers.add(result, expression);
+        }
 
         return result;
     }
 
-    public static final Procedure CONS = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure ADD = PrimitiveProcedure.makeN(Numbers::add, Core::addNumbers);
 
-                Expression car = expressions.get(0);
-                Expression cdr = expressions.get(1);
-                if (Utilities.isNull(cdr)) {
-                    return CombinationExpression.make(cons(car, Collections.emptyList()));
-                } else if (Utilities.isList(cdr)) {
-                    return CombinationExpression.make(cons(car, Utilities.asCombination(cdr).expressions()));
-                }
+    private static Expression subtractNumbers(Expression[] expressions) {
+        if (expressions.length < 1) {
+            throw new RuntimeException("Invalid number of arguments");
+        } else if (expressions.length == 1) {
+            return Numbers.negate(expressions[0]);
+        }
 
-                return Pair.make(expressions);
-            });
+        Expression result = expressions[0];
+        for (int index = 1; index < expressions.length; ++index) {
+            result = Numbers.subtract(result, expressions[index]);
+        }
 
-    public static final Procedure CAR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.asPair(arguments.expressions().get(0)).car());
+        return result;
+    }
 
-    public static final Procedure CDR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.asPair(arguments.expressions().get(0)).cdr());
+    public static final Procedure SUBTRACT = PrimitiveProcedure.makeN(Numbers::subtract, Core::subtractNumbers);
 
-    public static final Procedure SET_CAR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                Utilities.asPair(arguments.expressions().get(0)).car(arguments.expressions().get(1));
-                return UnitExpression.make();
-            });
+    private static Expression multiplyNumbers(Expression[] expressions) {
+        Expression result = IntegralExpression.make(1);
+        for (Expression expression : expressions) {
+            result = Numbers.multiply(result, expression);
+        }
 
-    public static final Procedure SET_CDR = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                Utilities.asPair(arguments.expressions().get(0)).cdr(arguments.expressions().get(1));
-                return UnitExpression.make();
-            });
+        return result;
+    }
 
+    public static final Procedure MULTIPLY = PrimitiveProcedure.makeN(Numbers::multiply, Core::multiplyNumbers);
 
+    private static Expression divideNumbers(Expression[] expressions) {
+        if (expressions.length < 1) {
+            throw new RuntimeException("Invalid number of arguments");
+        } else if (expressions.length == 1) {
+            return Numbers.divide(IntegralExpression.make(1), expressions[0]);
+        }
 
-    public static final Procedure IS_LIST = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isList(arguments.expressions().get(0)) ? TRUE : FALSE);
+        Expression result = expressions[0];
+        for (int index = 1; index < expressions.length; ++index) {
+            result = Numbers.divide(result, expressions[index]);
+        }
 
-    public static final Procedure LIST = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> arguments);
+        return result;
+    }
 
+    public static final Procedure DIVIDE = PrimitiveProcedure.makeN(Numbers::divide, Core::divideNumbers);
 
-    private static IntegralExpression length(Expression expression) {
-        if (Utilities.isNull(expression)) {
-            return IntegralExpression.make((long) 0);
-        } else if (Utilities.isList(expression)) {
-            return IntegralExpression.make((long) Utilities.asCombination(expression).expressions().size());
+    private static Expression sqrt(Expression expression) {
+        return FractionalExpression.make(Math.sqrt(Numbers.toDouble(expression)));
+    }
+
+    public static final Procedure SQRT = PrimitiveProcedure.make1(Core::sqrt);
+
+
+    private static int size(Expression expression, String kind) {
+        if (expression instanceof IntegralExpression) {
+            long length = ((IntegralExpression) expression).value();
+            if (length >= 0 && length <= Integer.MAX_VALUE) {
+                return (int) length;
+            }
         }
 
-        throw new RuntimeException("Malformed list");
+        throw new RuntimeException(String.format("Invalid %s length: %s", kind, expression));
     }
 
-    public static final Procedure LENGTH = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> length(arguments.expressions().get(0)));
+    private static int index(Expression expression, int length) {
+        if (expression instanceof IntegralExpression) {
+            long index = ((IntegralExpression) expression).value();
+            if (index >= 0 && index < length) {
+                return (int) index;
+            }
+        }
 
+        throw new RuntimeException(String.format("Index out of range: %s", expression));
+    }
 
-    public static final Procedure IS_SYMBOL = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isSymbol(arguments.expressions().get(0)) ? TRUE : FALSE);
+    private static Expression makeVector(Expression[] arguments) {
+        if (arguments.length < 1 || arguments.length > 2) {
+            throw new RuntimeException("Invalid number of arguments");
+        }
 
+        Expression[] elements = new Expression[size(arguments[0], "vector")];
+        Arrays.fill(elements, arguments.length == 2 ? arguments[1] : FALSE);
 
-    private static boolean isEq(Expression first, Expression other) {
-        return Objects.equals(first, other);
+        return VectorExpression.make(elements);
     }
 
-    public static final Procedure IS_EQ = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure MAKE_VECTOR = PrimitiveProcedure.makeN(Core::makeVector);
+
+    public static final Procedure VECTOR = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> VectorExpression.make(arguments.clone()));
 
-                return isEq(expressions.get(0), expressions.get(1)) ? TRUE : FALSE;
+    public static final Procedure IS_VECTOR = PrimitiveProcedure.make1(
+            (Expression x) -> x instanceof VectorExpression ? TRUE : FALSE);
+
+    public static final Procedure VECTOR_LENGTH = PrimitiveProcedure.make1(
+            (Expression vector) -> IntegralExpression.make(Utilities.asVector(vector).length()));
+
+    public static final Procedure VECTOR_REF = PrimitiveProcedure.make2(
+            (Expression vector, Expression index) -> {
+                VectorExpression elements = Utilities.asVector(vector);
+                return elements.get(index(index, elements.length()));
             });
 
+    public static final Procedure VECTOR_SET = PrimitiveProcedure.make3(
+            (Expression vector, Expression index, Expression value) -> {
+                VectorExpression elements = Utilities.asVector(vector);
+                elements.set(index(index, elements.length()), value);
+                return UNIT;
+            });
+
+    public static final Procedure VECTOR_FILL = PrimitiveProcedure.make2(
+            (Expression vector, Expression value) -> {
+                Arrays.fill(Utilities.asVector(vector).elements(), value);
+                return UNIT;
+            });
 
-    public static final Procedure IS_NUMBER = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isNumber(arguments.expressions().get(0)) ? TRUE : FALSE);
+    public static final Procedure VECTOR_TO_LIST = PrimitiveProcedure.make1(
+            (Expression vector) -> CombinationExpression.make(Arrays.asList(Utilities.asVector(vector).elements())));
 
-    private static Number unwrapNumber(Expression expression) {
+    public static final Procedure LIST_TO_VECTOR = PrimitiveProcedure.make1(
+            (Expression list) -> VectorExpression.make(Utilities.listToArray(list)));
+
+
+    private static long s64(Expression expression) {
         if (expression instanceof IntegralExpression) {
             return ((IntegralExpression) expression).value();
-        } else if (expression instanceof FractionalExpression) {
-            return ((FractionalExpression) expression).value();
         }
 
-        throw new RuntimeException(String.format("Expression is not a number: %s", expression));
+        throw new RuntimeException(String.format("Not a 64-bit integer: %s", expression));
     }
 
-    private static List<Number> mapUnwrapNumber(List<Expression> expressions) {
-        List<Number> result = new ArrayList<>(expressions.size());
-        for (Expression expression : expressions) {
-            result.add(unwrapNumber(expression));
+    private static Expression makeS64Vector(Expression[] arguments) {
+        if (arguments.length < 1 || arguments.length > 2) {
+            throw new RuntimeException("Invalid number of arguments");
         }
 
-        return result;
+        long[] elements = new long[size(arguments[0], "s64vector")];
+        if (arguments.length == 2) {
+            Arrays.fill(elements, s64(arguments[1]));
+        }
+
+        return S64VectorExpression.make(elements);
     }
 
+    public static final Procedure MAKE_S64VECTOR = PrimitiveProcedure.makeN(Core::makeS64Vector);
 
-    private static int compareNumbers(Expression first, Expression other) {
-        Number x = unwrapNumber(first), y = unwrapNumber(other);
-        if (x instanceof Long && y instanceof Long) {
-            return Long.compare(x.longValue(), y.longValue());
-        } else {
-            return Double.compare(x.doubleValue(), y.doubleValue());
+    public static final Procedure S64VECTOR = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> {
+                long[] elements = new long[arguments.length];
+                for (int index = 0; index < arguments.length; ++index) {
+                    elements[index] = s64(arguments[index]);
+                }
+
+                return S64VectorExpression.make(elements);
+            });
+
+    public static final Procedure IS_S64VECTOR = PrimitiveProcedure.make1(
+            (Expression x) -> x instanceof S64VectorExpression ? TRUE : FALSE);
+
+    public static final Procedure S64VECTOR_LENGTH = PrimitiveProcedure.make1(
+            (Expression vector) -> IntegralExpression.make(Utilities.asS64Vector(vector).length()));
+
+    public static final Procedure S64VECTOR_REF = PrimitiveProcedure.make2(
+            (Expression vector, Expression index) -> {
+                S64VectorExpression elements = Utilities.asS64Vector(vector);
+                return IntegralExpression.make(elements.get(index(index, elements.length())));
+            });
+
+    public static final Procedure S64VECTOR_SET = PrimitiveProcedure.make3(
+            (Expression vector, Expression index, Expression value) -> {
+                S64VectorExpression elements = Utilities.asS64Vector(vector);
+                elements.set(index(index, elements.length()), s64(value));
+                return UNIT;
+            });
+
+
+    private static Expression makeF64Vector(Expression[] arguments) {
+        if (arguments.length < 1 || arguments.length > 2) {
+            throw new RuntimeException("Invalid number of arguments");
         }
+
+        double[] elements = new double[size(arguments[0], "f64vector")];
+        if (arguments.length == 2) {
+            Arrays.fill(elements, Numbers.toDouble(arguments[1]));
+        }
+
+        return F64VectorExpression.make(elements);
     }
 
-    public static final Procedure LESS_THAN = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure MAKE_F64VECTOR = PrimitiveProcedure.makeN(Core::makeF64Vector);
 
-                return compareNumbers(expressions.get(0), expressions.get(1)) < 0 ? TRUE : FALSE;
+    public static final Procedure F64VECTOR = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> {
+                double[] elements = new double[arguments.length];
+                for (int index = 0; index < arguments.length; ++index) {
+                    elements[index] = Numbers.toDouble(arguments[index]);
+                }
+
+                return F64VectorExpression.make(elements);
             });
 
-    public static final Procedure LESS_THAN_OR_EQUAL_TO = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure IS_F64VECTOR = PrimitiveProcedure.make1(
+            (Expression x) -> x instanceof F64VectorExpression ? TRUE : FALSE);
 
-                return compareNumbers(expressions.get(0), expressions.get(1)) <= 0 ? TRUE : FALSE;
-            });
+    public static final Procedure F64VECTOR_LENGTH = PrimitiveProcedure.make1(
+            (Expression vector) -> IntegralExpression.make(Utilities.asF64Vector(vector).length()));
 
-    public static final Procedure EQUAL_TO = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure F64VECTOR_REF = PrimitiveProcedure.make2(
+            (Expression vector, Expression index) -> {
+                F64VectorExpression elements = Utilities.asF64Vector(vector);
+                return FractionalExpression.make(elements.get(index(index, elements.length())));
+            });
 
-                return compareNumbers(expressions.get(0), expressions.get(1)) == 0 ? TRUE : FALSE;
+    public static final Procedure F64VECTOR_SET = PrimitiveProcedure.make3(
+            (Expression vector, Expression index, Expression value) -> {
+                F64VectorExpression elements = Utilities.asF64Vector(vector);
+                elements.set(index(index, elements.length()), Numbers.toDouble(value));
+                return UNIT;
             });
 
-    public static final Procedure GREATER_THAN_OR_EQUAL_TO = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
 
-                return compareNumbers(expressions.get(0), expressions.get(1)) >= 0 ? TRUE : FALSE;
+    private static Equivalence equivalence(Expression predicate) {
+        if (predicate == IS_EQ) {
+            return Equivalence.EQ;
+        } else if (predicate == IS_EQV) {
+            return Equivalence.EQV;
+        } else if (predicate == IS_EQUAL) {
+            return Equivalence.EQUAL;
+        }
+
+        throw new RuntimeException(String.format("Unsupported equivalence: %s", predicate));
+    }
+
+    private static Expression makeHashTable(Expression[] arguments) {
+        if (arguments.length > 1) {
+            throw new RuntimeException("Invalid number of arguments");
+        }
+
+        return HashTableExpression.make(arguments.length == 1 ? equivalence(arguments[0]) : Equivalence.EQUAL);
+    }
+
+    public static final Procedure MAKE_HASH_TABLE = PrimitiveProcedure.makeN(Core::makeHashTable);
+
+    public static final Procedure MAKE_EQ_HASH_TABLE = PrimitiveProcedure.make0(
+            () -> HashTableExpression.make(Equivalence.EQ));
+
+    public static final Procedure MAKE_EQV_HASH_TABLE = PrimitiveProcedure.make0(
+            () -> HashTableExpression.make(Equivalence.EQV));
+
+    public static final Procedure MAKE_EQUAL_HASH_TABLE = PrimitiveProcedure.make0(
+            () -> HashTableExpression.make(Equivalence.EQUAL));
+
+    public static final Procedure IS_HASH_TABLE = PrimitiveProcedure.make1(
+            (Expression x) -> x instanceof HashTableExpression ? TRUE : FALSE);
+
+    /**
+     * Returns the value associated with the key, or the value of the failure thunk, if given.
+     */
+    private static Expression lookup(HashTableExpression table, Expression key, Expression[] arguments, int failure) {
+        Expression result = table.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        if (arguments.length > failure) {
+            return Utilities.asProcedure(arguments[failure]).apply0();
+        }
+
+        throw new RuntimeException(String.format("Key not found: %s", key));
+    }
+
+    private static Expression hashTableRef(Expression[] arguments) {
+        if (arguments.length < 2 || arguments.length > 3) {
+            throw new RuntimeException("Invalid number of arguments");
+        }
+
+        return lookup(Utilities.asHashTable(arguments[0]), arguments[1], arguments, 2);
+    }
+
+    public static final Procedure HASH_TABLE_REF = PrimitiveProcedure.makeN(Core::hashTableRef);
+
+    public static final Procedure HASH_TABLE_REF_DEFAULT = PrimitiveProcedure.make3(
+            (Expression table, Expression key, Expression fallback) -> {
+                Expression result = Utilities.asHashTable(table).get(key);
+                return result == null ? fallback : result;
             });
 
-    public static final Procedure GREATER_THAN = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                List<Expression> expressions = arguments.expressions();
+    public static final Procedure HASH_TABLE_SET = PrimitiveProcedure.make3(
+            (Expression table, Expression key, Expression value) -> {
+                Utilities.asHashTable(table).put(key, value);
+                return UNIT;
+            });
 
-                return compareNumbers(expressions.get(0), expressions.get(1)) > 0 ? TRUE : FALSE;
+    public static final Procedure HASH_TABLE_DELETE = PrimitiveProcedure.make2(
+            (Expression table, Expression key) -> {
+                Utilities.asHashTable(table).remove(key);
+                return UNIT;
             });
 
+    public static final Procedure HASH_TABLE_CONTAINS = PrimitiveProcedure.make2(
+            (Expression table, Expression key) -> Utilities.asHashTable(table).get(key) != null ? TRUE : FALSE);
 
-    private static Expression addNumbers(List<Expression> expressions) {
-        Number result = 0L;
-        for (Number number : mapUnwrapNumber(expressions)) {
-            if (result instanceof Long && number instanceof Long) {
-                result = result.longValue() + number.longValue();
-            } else {
-                result = result.doubleValue() + number.doubleValue();
-            }
+    public static final Procedure HASH_TABLE_COUNT = PrimitiveProcedure.make1(
+            (Expression table) -> IntegralExpression.make(Utilities.asHashTable(table).size()));
+
+    private static Expression hashTableUpdate(Expression[] arguments) {
+        if (arguments.length < 3 || arguments.length > 4) {
+            throw new RuntimeException("Invalid number of arguments");
         }
 
-        return result instanceof Long
-                ? IntegralExpression.make(result.longValue())
-                : FractionalExpression.make(result.doubleValue());
+        HashTableExpression table = Utilities.asHashTable(arguments[0]);
+        Procedure procedure = Utilities.asProcedure(arguments[2]);
+        table.put(arguments[1], procedure.apply1(lookup(table, arguments[1], arguments, 3)));
+
+        return UNIT;
     }
 
-    public static final Procedure ADD = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> addNumbers(arguments.expressions()));
+    public static final Procedure HASH_TABLE_UPDATE = PrimitiveProcedure.makeN(Core::hashTableUpdate);
 
-    private static Expression subtractNumbers(List<Expression> expressions) {
-        if (expressions.size() < 1) {
+    private static Expression hashTableUpdateDefault(Expression[] arguments) {
+        if (arguments.length != 4) {
             throw new RuntimeException("Invalid number of arguments");
-        } else if (expressions.size() == 1) {
-            Number result = unwrapNumber(expressions.get(0));
-            return result instanceof Long
-                    ? IntegralExpression.make(-result.longValue())
-                    : FractionalExpression.make(-result.doubleValue());
-        }
-
-        Number result = unwrapNumber(expressions.get(0));
-        for (Number number : mapUnwrapNumber(expressions.subList(1, expressions.size()))) {
-            if (result instanceof Long && number instanceof Long) {
-                result = result.longValue() - number.longValue();
-            } else {
-                result = result.doubleValue() - number.doubleValue();
-            }
         }
 
-        return result instanceof Long
-                ? IntegralExpression.make(result.longValue())
-                : FractionalExpression.make(result.doubleValue());
+        HashTableExpression table = Utilities.asHashTable(arguments[0]);
+        Procedure procedure = Utilities.asProcedure(arguments[2]);
+        Expression value = table.get(arguments[1]);
+        table.put(arguments[1], procedure.apply1(value == null ? arguments[3] : value));
+
+        return UNIT;
     }
 
-    public static final Procedure SUBTRACT = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> subtractNumbers(arguments.expressions()));
+    public static final Procedure HASH_TABLE_UPDATE_DEFAULT = PrimitiveProcedure.makeN(Core::hashTableUpdateDefault);
+
+    public static final Procedure HASH_TABLE_KEYS = PrimitiveProcedure.make1(
+            (Expression table) -> CombinationExpression.make(Utilities.asHashTable(table).keys()));
+
+    public static final Procedure HASH_TABLE_VALUES = PrimitiveProcedure.make1(
+            (Expression table) -> CombinationExpression.make(Utilities.asHashTable(table).values()));
+
+    /**
+     * Applies the procedure to the entries present when the walk starts and still present when they are reached,
+     * so the procedure may update the table.
+     */
+    public static final Procedure HASH_TABLE_WALK = PrimitiveProcedure.make2(
+            (Expression table, Expression procedure) -> {
+                HashTableExpression entries = Utilities.asHashTable(table);
+                for (Expression key : entries.keys()) {
+                    Expression value = entries.get(key);
+                    if (value != null) {
+                        Utilities.asProcedure(procedure).apply2(key, value);
+                    }
+                }
 
-    private static Expression multiplyNumbers(List<Expression> expressions) {
-        Number result = 1L;
-        for (Number number : mapUnwrapNumber(expressions)) {
-            if (result instanceof Long && number instanceof Long) {
-                result = result.longValue() * number.longValue();
-            } else {
-                result = result.doubleValue() * number.doubleValue();
-            }
+                return UNIT;
+            });
+
+    public static final Procedure HASH_TABLE_TO_ALIST = PrimitiveProcedure.make1(
+            (Expression table) -> {
+                HashTableExpression entries = Utilities.asHashTable(table);
+                List<Expression> result = new ArrayList<>(entries.size());
+                for (Expression key : entries.keys()) {
+                    result.add(cons(key, entries.get(key)));
+                }
+
+                return CombinationExpression.make(result);
+            });
+
+
+    public static final Procedure IS_STRING = PrimitiveProcedure.make1(
+            (Expression x) -> Utilities.isString(x) ? TRUE : FALSE);
+
+    public static final Procedure STRING_LENGTH = PrimitiveProcedure.make1(
+            (Expression string) -> IntegralExpression.make(Utilities.asString(string).length()));
+
+    public static final Procedure STRING_REF = PrimitiveProcedure.make2(
+            (Expression string, Expression index) -> {
+                StringExpression characters = Utilities.asString(string);
+                return CharacterExpression.make(characters.charAt(index(index, characters.length())));
+            });
+
+    private static Expression substring(Expression[] arguments) {
+        if (arguments.length < 2 || arguments.length > 3) {
+            throw new RuntimeException("Invalid number of arguments");
         }
 
-        return result instanceof Long
-                ? IntegralExpression.make(result.longValue())
-                : FractionalExpression.make(result.doubleValue());
+        StringExpression string = Utilities.asString(arguments[0]);
+        int start = index(arguments[1], string.length() + 1);
+        int end = arguments.length == 3 ? index(arguments[2], string.length() + 1) : string.length();
+        if (start > end) {
+            throw new RuntimeException(String.format("Index out of range: %s", arguments[1]));
+        }
+
+        return string.substring(start, end);
+    }
+
+    public static final Procedure SUBSTRING = PrimitiveProcedure.makeN(Core::substring);
+
+    private static Expression stringAppend(Expression[] arguments) {
+        int length = 0;
+        for (Expression argument : arguments) {
+            length += Utilities.asString(argument).length();
+        }
+
+        StringBuilder result = new StringBuilder(length);
+        for (Expression argument : arguments) {
+            ((StringExpression) argument).appendTo(result);
+        }
+
+        return StringExpression.make(result.toString());
     }
 
-    public static final Procedure MULTIPLY = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> multiplyNumbers(arguments.expressions()));
+    public static final Procedure STRING_APPEND = PrimitiveProcedure.makeN(Core::stringAppend);
 
-    private static Expression divideNumbers(List<Expression> expressions) {
-        if (expressions.size() < 1) {
+    public static final Procedure STRING_TO_SYMBOL = PrimitiveProcedure.make1(
+            (Expression string) -> SymbolExpression.make(Utilities.asString(string).value()));
+
+    public static final Procedure SYMBOL_TO_STRING = PrimitiveProcedure.make1(
+            (Expression symbol) -> StringExpression.make(Utilities.asSymbol(symbol).name()));
+
+    private static Expression numberToString(Expression[] arguments) {
+        if (arguments.length < 1 || arguments.length > 2) {
             throw new RuntimeException("Invalid number of arguments");
         }
 
-        Number result = unwrapNumber(expressions.get(0));
-        for (Number number : mapUnwrapNumber(expressions.subList(1, expressions.size()))) {
-            if (number.longValue() == 0L || number.doubleValue() == 0.) {
-                throw new RuntimeException("Division by zero");
-            }
+        Expression number = arguments[0];
+        if (!Utilities.isNumber(number)) {
+            throw new RuntimeException(String.format("Not a number: %s", number));
+        }
+
+        if (arguments.length == 1) {
+            return StringExpression.make(number.toString());
+        }
 
-            result = result.doubleValue() / number.doubleValue();
+        int radix = (int) s64(arguments[1]);
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            throw new RuntimeException(String.format("Invalid radix: %s", arguments[1]));
         }
 
-        return result instanceof Long
-                ? IntegralExpression.make(result.longValue())
-                : FractionalExpression.make(result.doubleValue());
+        if (number instanceof IntegralExpression) {
+            return StringExpression.make(Long.toString(((IntegralExpression) number).value(), radix));
+        } else if (number instanceof BigIntegralExpression) {
+            return StringExpression.make(((BigIntegralExpression) number).value().toString(radix));
+        } else if (radix == 10) {
+            return StringExpression.make(number.toString());
+        }
+
+        throw new RuntimeException(String.format("Not an exact integer: %s", number));
     }
 
-    public static final Procedure DIVIDE = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> divideNumbers(arguments.expressions()));
+    public static final Procedure NUMBER_TO_STRING = PrimitiveProcedure.makeN(Core::numberToString);
 
-    private static Expression sqrt(Expression expression) {
-        return FractionalExpression.make(Math.sqrt(unwrapNumber(expression).doubleValue()));
+    public static final Procedure IS_CHAR = PrimitiveProcedure.make1(
+            (Expression x) -> x instanceof CharacterExpression ? TRUE : FALSE);
+
+    public static final Procedure CHAR_TO_INTEGER = PrimitiveProcedure.make1(
+            (Expression x) -> {
+                if (x instanceof CharacterExpression) {
+                    return IntegralExpression.make(((CharacterExpression) x).value());
+                }
+
+                throw new RuntimeException(String.format("Not a character: %s", x));
+            });
+
+
+    public static final Procedure OPEN_OUTPUT_STRING = PrimitiveProcedure.make0(OutputPortExpression::make);
+
+    public static final Procedure GET_OUTPUT_STRING = PrimitiveProcedure.make1(
+            (Expression port) -> Utilities.asOutputPort(port).contents());
+
+    /**
+     * Returns the builder of the output port given as the optional last argument, or `null` for the standard output.
+     */
+    private static StringBuilder port(Expression[] arguments, int index) {
+        if (arguments.length < index || arguments.length > index + 1) {
+            throw new RuntimeException("Invalid number of arguments");
+        }
+
+        return arguments.length == index ? null : Utilities.asOutputPort(arguments[index]).builder();
     }
 
-    public static final Procedure SQRT = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> sqrt(arguments.expressions().get(0)));
+    private static Expression display(Expression expression, StringBuilder port) {
+        if (port == null) {
+            System.out.print(toStringUnquoted(expression));
+        } else if (expression instanceof StringExpression) {
+            ((StringExpression) expression).appendTo(port);
+        } else {
+            port.append(toStringUnquoted(expression));
+        }
 
+        return UNIT;
+    }
 
-    public static final Procedure IS_STRING = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> Utilities.isString(arguments.expressions().get(0)) ? TRUE : FALSE);
+    public static final Procedure DISPLAY = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> {
+                StringBuilder port = port(arguments, 1);
+                return display(arguments[0], port);
+            });
 
-    public static final Procedure DISPLAY = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                System.out.print(toStringUnquoted(arguments.expressions().get(0)));
-                return UNIT;
+    public static final Procedure WRITE_STRING = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> {
+                StringBuilder port = port(arguments, 1);
+                return display(Utilities.asString(arguments[0]), port);
             });
 
-    public static final Procedure NEWLINE = PrimitiveProcedure.make(
-            (CombinationExpression arguments) -> {
-                System.out.println();
+    public static final Procedure NEWLINE = PrimitiveProcedure.makeN(
+            (Expression[] arguments) -> {
+                StringBuilder port = port(arguments, 0);
+                if (port == null) {
+                    System.out.println();
+                } else {
+                    port.append('\n');
+                }
+
                 return UNIT;
             });
 
-    public static final Procedure READ = PrimitiveProcedure.make(
-            new PrimitiveProcedure.Implementation() {
+    public static final Procedure READ = PrimitiveProcedure.make0(
+            new PrimitiveProcedure.Nullary() {
                 private final ExpressionReader reader =
                         new ExpressionReader(
                                 new BufferedReader(
                                         new InputStreamReader(
                                                 System.in)),
-                                Syntax.INTERPRETED_PROGRAM);
+                                SyntaxReader.Grammar.INTERPRETED_PROGRAM);
+
+                private static final String PROMPT_ERR = "~> ";
 
                 @Override
-                public Expression $(CombinationExpression arguments) {
-                    try {
-                        Expression result = reader.nextExpression();
-//                        System.err.printf("%s: %s%n", result.getClass().getCanonicalName(), result);
-
-                        return result;
-                    } catch (IOException exception) {
-                        throw new RuntimeException(exception);
+                public Expression $() {
+                    while (true) {
+                        try {
+                            Expression result = reader.nextExpression();
+//                            System.err.printf("%s: %s%n", result.getClass().getCanonicalName(), result);
+
+                            return result;
+                        } catch (IOException exception) {
+                            throw new RuntimeException(exception);
+                        } catch (RuntimeException exception) {
+                            System.out.printf("%s%s%n", PROMPT_ERR, exception.getMessage());
+                        }
                     }
                 };
             }
@@ -1,12 +1,13 @@
 package scheme;
 
 import scheme.expression.SymbolExpression;
+import scheme.jvm.GlobalSite;
 
 import java.util.HashMap;
 import java.util.Map;
 
 public class DefaultEnvironment implements Environment {
-    private static final Map<SymbolExpression, Expression> PRIMITIVES = new HashMap<>();
+    static final Map<SymbolExpression, Expression> PRIMITIVES = new HashMap<>();
 
     static {
         PRIMITIVES.put(SymbolExpression.make("true"), Core.TRUE);
@@ -34,6 +35,8 @@ public class DefaultEnvironment implements Environment {
         PRIMITIVES.put(SymbolExpression.make("symbol?"), Core.IS_SYMBOL);
 
         PRIMITIVES.put(SymbolExpression.make("eq?"), Core.IS_EQ);
+        PRIMITIVES.put(SymbolExpression.make("eqv?"), Core.IS_EQV);
+        PRIMITIVES.put(SymbolExpression.make("equal?"), Core.IS_EQUAL);
 
         PRIMITIVES.put(SymbolExpression.make("number?"), Core.IS_NUMBER);
 
@@ -50,7 +53,63 @@ public class DefaultEnvironment implements Environment {
 
         PRIMITIVES.put(SymbolExpression.make("sqrt"), Core.SQRT);
 
+        PRIMITIVES.put(SymbolExpression.make("vector?"), Core.IS_VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("make-vector"), Core.MAKE_VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("vector"), Core.VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("vector-length"), Core.VECTOR_LENGTH);
+        PRIMITIVES.put(SymbolExpression.make("vector-ref"), Core.VECTOR_REF);
+        PRIMITIVES.put(SymbolExpression.make("vector-set!"), Core.VECTOR_SET);
+        PRIMITIVES.put(SymbolExpression.make("vector-fill!"), Core.VECTOR_FILL);
+        PRIMITIVES.put(SymbolExpression.make("vector->list"), Core.VECTOR_TO_LIST);
+        PRIMITIVES.put(SymbolExpression.make("list->vector"), Core.LIST_TO_VECTOR);
+
+        PRIMITIVES.put(SymbolExpression.make("s64vector?"), Core.IS_S64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("make-s64vector"), Core.MAKE_S64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("s64vector"), Core.S64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("s64vector-length"), Core.S64VECTOR_LENGTH);
+        PRIMITIVES.put(SymbolExpression.make("s64vector-ref"), Core.S64VECTOR_REF);
+        PRIMITIVES.put(SymbolExpression.make("s64vector-set!"), Core.S64VECTOR_SET);
+
+        PRIMITIVES.put(SymbolExpression.make("f64vector?"), Core.IS_F64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("make-f64vector"), Core.MAKE_F64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("f64vector"), Core.F64VECTOR);
+        PRIMITIVES.put(SymbolExpression.make("f64vector-length"), Core.F64VECTOR_LENGTH);
+        PRIMITIVES.put(SymbolExpression.make("f64vector-ref"), Core.F64VECTOR_REF);
+        PRIMITIVES.put(SymbolExpression.make("f64vector-set!"), Core.F64VECTOR_SET);
+
+        PRIMITIVES.put(SymbolExpression.make("hash-table?"), Core.IS_HASH_TABLE);
+        PRIMITIVES.put(SymbolExpression.make("make-hash-table"), Core.MAKE_HASH_TABLE);
+        PRIMITIVES.put(SymbolExpression.make("make-eq-hash-table"), Core.MAKE_EQ_HASH_TABLE);
+        PRIMITIVES.put(SymbolExpression.make("make-eqv-hash-table"), Core.MAKE_EQV_HASH_TABLE);
+        PRIMITIVES.put(SymbolExpression.make("make-equal-hash-table"), Core.MAKE_EQUAL_HASH_TABLE);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-ref"), Core.HASH_TABLE_REF);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-ref/default"), Core.HASH_TABLE_REF_DEFAULT);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-set!"), Core.HASH_TABLE_SET);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-delete!"), Core.HASH_TABLE_DELETE);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-contains?"), Core.HASH_TABLE_CONTAINS);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-count"), Core.HASH_TABLE_COUNT);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-update!"), Core.HASH_TABLE_UPDATE);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-update!/default"), Core.HASH_TABLE_UPDATE_DEFAULT);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-keys"), Core.HASH_TABLE_KEYS);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-values"), Core.HASH_TABLE_VALUES);
+        PRIMITIVES.put(SymbolExpression.make("hash-table-walk"), Core.HASH_TABLE_WALK);
+        PRIMITIVES.put(SymbolExpression.make("hash-table->alist"), Core.HASH_TABLE_TO_ALIST);
+
         PRIMITIVES.put(SymbolExpression.make("string?"), Core.IS_STRING);
+        PRIMITIVES.put(SymbolExpression.make("string-length"), Core.STRING_LENGTH);
+        PRIMITIVES.put(SymbolExpression.make("string-ref"), Core.STRING_REF);
+        PRIMITIVES.put(SymbolExpression.make("substring"), Core.SUBSTRING);
+        PRIMITIVES.put(SymbolExpression.make("string-append"), Core.STRING_APPEND);
+        PRIMITIVES.put(SymbolExpression.make("string->symbol"), Core.STRING_TO_SYMBOL);
+        PRIMITIVES.put(SymbolExpression.make("symbol->string"), Core.SYMBOL_TO_STRING);
+        PRIMITIVES.put(SymbolExpression.make("number->string"), Core.NUMBER_TO_STRING);
+
+        PRIMITIVES.put(SymbolExpression.make("char?"), Core.IS_CHAR);
+        PRIMITIVES.put(SymbolExpression.make("char->integer"), Core.CHAR_TO_INTEGER);
+
+        PRIMITIVES.put(SymbolExpression.make("open-output-string"), Core.OPEN_OUTPUT_STRING);
+        PRIMITIVES.put(SymbolExpression.make("get-output-string"), Core.GET_OUTPUT_STRING);
+        PRIMITIVES.put(SymbolExpression.make("write-string"), Core.WRITE_STRING);
 
         PRIMITIVES.put(SymbolExpression.make("display"), Core.DISPLAY);
         PRIMITIVES.put(SymbolExpression.make("newline"), Core.NEWLINE);
@@ -59,6 +118,22 @@ public class DefaultEnvironment implements Environment {
     }
 
 
+    private static int version;
+
+    /**
+     * Returns the number of times a binding has been defined or assigned in any environment of this kind
+     * or in a {@link GlobalEnvironment}, which lets caches of looked up values check that they are still valid.
+     */
+    public static int version() {
+        return version;
+    }
+
+    static void invalidate(SymbolExpression variable) {
+        ++version;
+        GlobalSite.invalidate(variable);
+    }
+
+
     private final Environment enclosing;
 
     private final Map<SymbolExpression, Expression> bindings;
@@ -72,6 +147,17 @@ public class DefaultEnvironment implements Environment {
         this(enclosing, PRIMITIVES);
     }
 
+    public Environment enclosing() {
+        return enclosing;
+    }
+
+    /**
+     * Returns whether this environment binds the variable itself.
+     */
+    public boolean binds(SymbolExpression variable) {
+        return bindings.containsKey(variable);
+    }
+
     @Override
     public Environment extend(Map<SymbolExpression, Expression> bindings) {
         return new DefaultEnvironment(this, bindings);
@@ -89,12 +175,14 @@ public class DefaultEnvironment implements Environment {
     @Override
     public void define(SymbolExpression variable, Expression value) {
         bindings.put(variable, value);
+        invalidate(variable);
     }
 
     @Override
     public void set(SymbolExpression variable, Expression value) {
         if (bindings.containsKey(variable)) {
             bindings.put(variable, value);
+            invalidate(variable);
             return;
         }
 
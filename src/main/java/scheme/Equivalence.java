@@ -0,0 +1,187 @@
+package scheme;
+
+import scheme.expression.*;
+
+/**
+ * The equivalence predicates `eq?`, `eqv?` and `equal?`, each with a hash function consistent with it.
+ * Numbers are compared by value already by `eq?`, so `eq?` and `eqv?` coincide. `equal?` compares pairs,
+ * strings and vectors by their contents; its hash function looks at a bounded prefix of a structure only.
+ */
+public enum Equivalence {
+    EQ {
+        @Override
+        public boolean test(Expression first, Expression other) {
+            return first == other || first != null && first.equals(other);
+        }
+
+        @Override
+        public int hash(Expression expression) {
+            return expression.hashCode();
+        }
+    },
+
+    EQV {
+        @Override
+        public boolean test(Expression first, Expression other) {
+            return EQ.test(first, other);
+        }
+
+        @Override
+        public int hash(Expression expression) {
+            return EQ.hash(expression);
+        }
+    },
+
+    EQUAL {
+        @Override
+        public boolean test(Expression first, Expression other) {
+            return isEqual(first, other);
+        }
+
+        @Override
+        public int hash(Expression expression) {
+            return hashEqual(expression, HASH_DEPTH);
+        }
+    };
+
+    private static final int HASH_DEPTH = 4;
+    private static final int HASH_LENGTH = 8;
+
+    public abstract boolean test(Expression first, Expression other);
+
+    public abstract int hash(Expression expression);
+
+
+    private static boolean isCons(Expression expression) {
+        return expression instanceof Pair && !Utilities.isNull(expression);
+    }
+
+    private static boolean isEqual(Expression first, Expression other) {
+        while (!EQ.test(first, other)) {
+            if (!isCons(first) || !isCons(other)) {
+                return isEqualAtom(first, other);
+            }
+
+            Pair x = (Pair) first;
+            Pair y = (Pair) other;
+            if (!isEqual(x.car(), y.car())) {
+                return false;
+            }
+
+            first = x.cdr();
+            other = y.cdr();
+        }
+
+        return true;
+    }
+
+    private static boolean isEqualAtom(Expression first, Expression other) {
+        if (first instanceof StringExpression && other instanceof StringExpression) {
+            return ((StringExpression) first).contentEquals((StringExpression) other);
+        }
+
+        if (first instanceof VectorExpression && other instanceof VectorExpression) {
+            VectorExpression x = (VectorExpression) first;
+            VectorExpression y = (VectorExpression) other;
+            if (x.length() != y.length()) {
+                return false;
+            }
+
+            for (int index = 0; index < x.length(); ++index) {
+                if (!isEqual(x.get(index), y.get(index))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (first instanceof S64VectorExpression && other instanceof S64VectorExpression) {
+            S64VectorExpression x = (S64VectorExpression) first;
+            S64VectorExpression y = (S64VectorExpression) other;
+            if (x.length() != y.length()) {
+                return false;
+            }
+
+            for (int index = 0; index < x.length(); ++index) {
+                if (x.get(index) != y.get(index)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (first instanceof F64VectorExpression && other instanceof F64VectorExpression) {
+            F64VectorExpression x = (F64VectorExpression) first;
+            F64VectorExpression y = (F64VectorExpression) other;
+            if (x.length() != y.length()) {
+                return false;
+            }
+
+            for (int index = 0; index < x.length(); ++index) {
+                if (Double.doubleToLongBits(x.get(index)) != Double.doubleToLongBits(y.get(index))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static int hashEqual(Expression expression, int depth) {
+        if (expression instanceof StringExpression) {
+            return ((StringExpression) expression).contentHashCode();
+        }
+
+        if (depth == 0 && (isCons(expression) || expression instanceof VectorExpression)) {
+            return 0;
+        }
+
+        if (isCons(expression)) {
+            int result = 1;
+            Expression rest = expression;
+            for (int count = 0; count < HASH_LENGTH && isCons(rest); ++count) {
+                Pair pair = (Pair) rest;
+                result = 31 * result + hashEqual(pair.car(), depth - 1);
+                rest = pair.cdr();
+            }
+
+            return result;
+        }
+
+        if (expression instanceof VectorExpression) {
+            VectorExpression vector = (VectorExpression) expression;
+            int result = vector.length();
+            for (int index = 0; index < Math.min(HASH_LENGTH, vector.length()); ++index) {
+                result = 31 * result + hashEqual(vector.get(index), depth - 1);
+            }
+
+            return result;
+        }
+
+        if (expression instanceof S64VectorExpression) {
+            S64VectorExpression vector = (S64VectorExpression) expression;
+            int result = vector.length();
+            for (int index = 0; index < Math.min(HASH_LENGTH, vector.length()); ++index) {
+                result = 31 * result + Long.hashCode(vector.get(index));
+            }
+
+            return result;
+        }
+
+        if (expression instanceof F64VectorExpression) {
+            F64VectorExpression vector = (F64VectorExpression) expression;
+            int result = vector.length();
+            for (int index = 0; index < Math.min(HASH_LENGTH, vector.length()); ++index) {
+                result = 31 * result + Double.hashCode(vector.get(index));
+            }
+
+            return result;
+        }
+
+        return expression.hashCode();
+    }
+}
@@ -0,0 +1,6 @@
+package scheme;
+
+@FunctionalInterface
+public interface Evaluator {
+    Expression eval(Expression expression, Environment environment);
+}
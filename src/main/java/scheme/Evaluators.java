@@ -0,0 +1,48 @@
+package scheme;
+
+import scheme.analysis.Analyzer;
+import scheme.bytecode.Compiler;
+import scheme.bytecode.Machine;
+
+public final class Evaluators {
+    public static final String PROPERTY = "scheme.evaluator";
+
+    /**
+     * Evaluates the expression by walking its syntax tree directly.
+     */
+    public static final Evaluator TREE_WALKING =
+            (Expression expression, Environment environment) -> expression.eval(environment);
+
+    /**
+     * Analyzes the expression once into an executable node graph, then executes the graph.
+     * Procedure bodies are analyzed together with the enclosing expression and are never re-analyzed.
+     */
+    public static final Evaluator ANALYZING =
+            (Expression expression, Environment environment) -> Analyzer.analyze(expression).eval(environment);
+
+    /**
+     * Compiles the expression into bytecode, then executes the bytecode by a stack machine.
+     */
+    public static final Evaluator BYTECODE =
+            (Expression expression, Environment environment) -> Machine.run(Compiler.compile(expression), environment);
+
+
+    public static Evaluator named(String name) {
+        switch (name) {
+            case "tree":
+                return TREE_WALKING;
+            case "analyzing":
+                return ANALYZING;
+            case "explicit":
+                return new ExplicitControlEvaluator();
+            case "bytecode":
+                return BYTECODE;
+        }
+
+        throw new RuntimeException(String.format("Unknown evaluator: `%s`", name));
+    }
+
+    public static Evaluator configured() {
+        return named(System.getProperty(PROPERTY, "tree"));
+    }
+}
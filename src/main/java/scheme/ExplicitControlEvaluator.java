@@ -0,0 +1,361 @@
+package scheme;
+
+import scheme.expression.*;
+import scheme.procedure.CompoundProcedure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The explicit-control evaluator (SICP 5.4): a register machine that evaluates {@link Expression} trees
+ * keeping its continuations in a stack allocated on the heap. Nesting of evaluation is therefore bounded
+ * by the heap size instead of the Java thread stack, and tail calls take no stack at all.
+ * <p>
+ * Primitives are applied by calling them. `apply` is the exception: the machine spreads its list of arguments
+ * and dispatches on the procedure applied itself. Other primitives that apply procedures in turn
+ * (`hash-table-update!`, `hash-table-walk`, the failure thunk of `hash-table-ref`) still apply them
+ * on the Java stack.
+ * <p>
+ * The machine counts the pushes and the maximum depth of its stack during the last evaluation.
+ * It is not reentrant: an instance evaluates one expression at a time.
+ */
+public final class ExplicitControlEvaluator implements Evaluator {
+    private static final int EVAL_DISPATCH = 0;
+    private static final int EV_IF_DECIDE = 1;
+    private static final int EV_ASSIGNMENT_1 = 2;
+    private static final int EV_DEFINITION_1 = 3;
+    private static final int EV_APPL_DID_OPERATOR = 4;
+    private static final int EV_APPL_OPERAND_LOOP = 5;
+    private static final int EV_APPL_ACCUMULATE_ARG = 6;
+    private static final int EV_APPL_ACCUM_LAST_ARG = 7;
+    private static final int APPLY_DISPATCH = 8;
+    private static final int EV_SEQUENCE = 9;
+    private static final int EV_SEQUENCE_CONTINUE = 10;
+    private static final int EV_COND_CLAUSE = 11;
+    private static final int EV_COND_DECIDE = 12;
+    private static final int EV_LET_BINDING = 13;
+    private static final int EV_LET_ACCUMULATE = 14;
+    private static final int EV_LET_BODY = 15;
+    private static final int DONE = 16;
+
+    private static final SymbolExpression ELSE = SymbolExpression.make("else");
+
+
+    private Object[] stack = new Object[64];
+    private int depth;
+
+    private long totalPushes;
+    private int maximumDepth;
+
+    public long totalPushes() {
+        return totalPushes;
+    }
+
+    public int maximumDepth() {
+        return maximumDepth;
+    }
+
+    private void save(Object object) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+
+        stack[depth++] = object;
+
+        ++totalPushes;
+        if (depth > maximumDepth) {
+            maximumDepth = depth;
+        }
+    }
+
+    private Object restore() {
+        Object result = stack[--depth];
+        stack[depth] = null;
+
+        return result;
+    }
+
+    private void initialize() {
+        Arrays.fill(stack, 0, depth, null);
+        depth = 0;
+
+        totalPushes = 0;
+        maximumDepth = 0;
+    }
+
+    private static Map<SymbolExpression, Expression> bindings(List<CombinationExpression> variables,
+                                                              List<Expression> values) {
+        Map<SymbolExpression, Expression> result = new HashMap<>();
+        for (int index = 0; index < variables.size(); ++index) {
+            result.put(Utilities.asSymbol(variables.get(index).car()), values.get(index));
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Expression eval(Expression expression, Environment environment) {
+        initialize();
+
+        Expression exp = expression;
+        Environment env = environment;
+        Expression val = null;
+        Procedure proc = null;
+        List<Expression> argl = null;
+        CombinationExpression unev = null;
+        Iterator<? extends Expression> rest = null;
+        int cont = DONE;
+
+        int label = EVAL_DISPATCH;
+        while (true) {
+            switch (label) {
+                case EVAL_DISPATCH:
+                    if (exp instanceof SymbolExpression) {
+                        val = env.lookup((SymbolExpression) exp);
+                        label = cont;
+                    } else if (exp instanceof QuoteExpression) {
+                        val = ((QuoteExpression) exp).expression();
+                        label = cont;
+                    } else if (exp instanceof LambdaExpression) {
+                        LambdaExpression lambda = (LambdaExpression) exp;
+                        val = CompoundProcedure.make(env, lambda.parameters(), lambda.expressions());
+                        label = cont;
+                    } else if (exp instanceof IfExpression) {
+                        save(exp);
+                        save(env);
+                        save(cont);
+                        cont = EV_IF_DECIDE;
+                        exp = ((IfExpression) exp).predicate();
+                    } else if (exp instanceof AssignmentExpression) {
+                        save(exp);
+                        save(env);
+                        save(cont);
+                        cont = EV_ASSIGNMENT_1;
+                        exp = ((AssignmentExpression) exp).value();
+                    } else if (exp instanceof DefinitionExpression) {
+                        save(exp);
+                        save(env);
+                        save(cont);
+                        cont = EV_DEFINITION_1;
+                        exp = ((DefinitionExpression) exp).value();
+                    } else if (exp instanceof BeginExpression) {
+                        save(cont);
+                        rest = ((BeginExpression) exp).expressions().iterator();
+                        label = EV_SEQUENCE;
+                    } else if (exp instanceof CondExpression) {
+                        save(cont);
+                        rest = ((CondExpression) exp).clauses().iterator();
+                        label = EV_COND_CLAUSE;
+                    } else if (exp instanceof LetExpression) {
+                        save(cont);
+                        save(exp);
+                        argl = new ArrayList<>();
+                        rest = ((LetExpression) exp).bindings().iterator();
+                        label = EV_LET_BINDING;
+                    } else if (exp instanceof CombinationExpression && !Utilities.isNull(exp)) {
+                        save(cont);
+                        save(env);
+                        unev = ((CombinationExpression) exp).rest();
+                        save(unev);
+                        cont = EV_APPL_DID_OPERATOR;
+                        exp = ((CombinationExpression) exp).car();
+                    } else {
+                        val = exp.eval(env);
+                        label = cont;
+                    }
+                    break;
+
+                case EV_IF_DECIDE:
+                    cont = (int) restore();
+                    env = (Environment) restore();
+                    exp = (Expression) restore();
+                    exp = Utilities.isTrue(val)
+                            ? ((IfExpression) exp).consequent()
+                            : ((IfExpression) exp).alternative();
+                    label = EVAL_DISPATCH;
+                    break;
+
+                case EV_ASSIGNMENT_1:
+                    cont = (int) restore();
+                    env = (Environment) restore();
+                    exp = (Expression) restore();
+                    env.set(((AssignmentExpression) exp).variable(), val);
+                    val = Core.UNIT;
+                    label = cont;
+                    break;
+
+                case EV_DEFINITION_1:
+                    cont = (int) restore();
+                    env = (Environment) restore();
+                    exp = (Expression) restore();
+                    env.define(((DefinitionExpression) exp).variable(), val);
+                    val = Core.UNIT;
+                    label = cont;
+                    break;
+
+                case EV_APPL_DID_OPERATOR:
+                    unev = (CombinationExpression) restore();
+                    env = (Environment) restore();
+                    argl = new ArrayList<>();
+                    proc = Utilities.asProcedure(val);
+                    if (Utilities.isNull(unev)) {
+                        label = APPLY_DISPATCH;
+                        break;
+                    }
+
+                    save(proc);
+                    label = EV_APPL_OPERAND_LOOP;
+                    break;
+
+                case EV_APPL_OPERAND_LOOP:
+                    save(argl);
+                    exp = unev.car();
+                    if (Utilities.isNull(unev.rest())) {
+                        cont = EV_APPL_ACCUM_LAST_ARG;
+                    } else {
+                        save(env);
+                        save(unev);
+                        cont = EV_APPL_ACCUMULATE_ARG;
+                    }
+                    label = EVAL_DISPATCH;
+                    break;
+
+                case EV_APPL_ACCUMULATE_ARG:
+                    unev = (CombinationExpression) restore();
+                    env = (Environment) restore();
+                    argl = (List<Expression>) restore();
+                    argl.add(val);
+                    unev = unev.rest();
+                    label = EV_APPL_OPERAND_LOOP;
+                    break;
+
+                case EV_APPL_ACCUM_LAST_ARG:
+                    argl = (List<Expression>) restore();
+                    argl.add(val);
+                    proc = (Procedure) restore();
+                    label = APPLY_DISPATCH;
+                    break;
+
+                case APPLY_DISPATCH:
+                    if (proc == Core.APPLY && argl.size() == 2) {
+                        proc = Utilities.asProcedure(argl.get(0));
+                        argl = new ArrayList<>(Arrays.asList(Utilities.listToArray(argl.get(1))));
+                        break;
+                    }
+
+                    if (proc instanceof CompoundProcedure) {
+                        CompoundProcedure compound = (CompoundProcedure) proc;
+                        env = compound.bind(argl.toArray(new Expression[0]));
+                        rest = compound.expressions().iterator();
+                        label = EV_SEQUENCE;
+                        break;
+                    }
+
+                    val = proc.apply(argl.toArray(new Expression[0]));
+                    cont = (int) restore();
+                    label = cont;
+                    break;
+
+                case EV_SEQUENCE:
+                    if (!rest.hasNext()) {
+                        val = Core.UNIT;
+                        cont = (int) restore();
+                        label = cont;
+                        break;
+                    }
+
+                    exp = rest.next();
+                    if (rest.hasNext()) {
+                        save(rest);
+                        save(env);
+                        cont = EV_SEQUENCE_CONTINUE;
+                    } else {
+                        cont = (int) restore();
+                    }
+                    label = EVAL_DISPATCH;
+                    break;
+
+                case EV_SEQUENCE_CONTINUE:
+                    env = (Environment) restore();
+                    rest = (Iterator<? extends Expression>) restore();
+                    label = EV_SEQUENCE;
+                    break;
+
+                case EV_COND_CLAUSE:
+                    if (!rest.hasNext()) {
+                        val = Core.FALSE;
+                        cont = (int) restore();
+                        label = cont;
+                        break;
+                    }
+
+                    exp = rest.next();
+                    if (ELSE.equals(((CombinationExpression) exp).car())) {
+                        rest = ((CombinationExpression) exp).rest().expressions().iterator();
+                        label = EV_SEQUENCE;
+                        break;
+                    }
+
+                    save(exp);
+                    save(rest);
+                    save(env);
+                    cont = EV_COND_DECIDE;
+                    exp = ((CombinationExpression) exp).car();
+                    label = EVAL_DISPATCH;
+                    break;
+
+                case EV_COND_DECIDE:
+                    env = (Environment) restore();
+                    rest = (Iterator<? extends Expression>) restore();
+                    exp = (Expression) restore();
+                    if (Utilities.isTrue(val)) {
+                        rest = ((CombinationExpression) exp).rest().expressions().iterator();
+                        label = EV_SEQUENCE;
+                    } else {
+                        label = EV_COND_CLAUSE;
+                    }
+                    break;
+
+                case EV_LET_BINDING:
+                    if (!rest.hasNext()) {
+                        label = EV_LET_BODY;
+                        break;
+                    }
+
+                    save(argl);
+                    exp = ((CombinationExpression) rest.next()).rest().car();
+                    save(rest);
+                    save(env);
+                    cont = EV_LET_ACCUMULATE;
+                    label = EVAL_DISPATCH;
+                    break;
+
+                case EV_LET_ACCUMULATE:
+                    env = (Environment) restore();
+                    rest = (Iterator<? extends Expression>) restore();
+                    argl = (List<Expression>) restore();
+                    argl.add(val);
+                    label = EV_LET_BINDING;
+                    break;
+
+                case EV_LET_BODY:
+                    exp = (Expression) restore();
+                    env = env.extend(bindings(((LetExpression) exp).bindings(), argl));
+                    rest = ((LetExpression) exp).expressions().iterator();
+                    label = EV_SEQUENCE;
+                    break;
+
+                case DONE:
+                    return val;
+
+                default:
+                    throw new IllegalStateException(String.format("Unknown label: %d", label));
+            }
+        }
+    }
+}
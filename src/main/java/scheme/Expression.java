@@ -2,4 +2,13 @@ package scheme;
 
 public interface Expression {
     Expression eval(Environment environment);
+
+    /**
+     * Evaluates the expression in a tail position. Instead of applying a compound procedure the result
+     * may be a pending {@link scheme.procedure.TailCall}, which the procedure being executed runs
+     * after its own Java frame has been left. Tail calls thus take constant Java stack.
+     */
+    default Expression evalTail(Environment environment) {
+        return eval(environment);
+    }
 }
@@ -3,54 +3,135 @@ package scheme;
 import scheme.syntax.Parser;
 import scheme.syntax.Result;
 
-import java.io.BufferedReader;
 import java.io.FilterReader;
 import java.io.IOException;
-import java.util.Deque;
+import java.io.Reader;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
-import static java.util.Arrays.asList;
-
+/**
+ * Reads the expressions of a program one at a time: with a {@link SyntaxReader} by default, or with a combinator
+ * grammar. Input for the grammar is scanned as it arrives, keeping track of the depth of parentheses and of strings,
+ * and the grammar is applied once a complete datum is pending, so each datum is parsed once however many lines
+ * it spans.
+ */
 public class ExpressionReader extends FilterReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final SyntaxReader reader;
+
     private final Parser<List<Expression>> syntax;
     private final Queue<Expression> queue = new LinkedList<>();
 
-    private String remaining = "";
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /**
+     * The input not parsed yet.
+     */
+    private final StringBuilder pending = new StringBuilder();
+    private boolean blank = true;
+    private int depth;
+    private boolean string;
+
+    public ExpressionReader(Reader in, SyntaxReader.Grammar grammar) {
+        super(in);
+        this.reader = new SyntaxReader(in, grammar);
+        this.syntax = null;
+    }
 
-    public ExpressionReader(BufferedReader in, Parser<List<Expression>> syntax) {
+    public ExpressionReader(Reader in, Parser<List<Expression>> syntax) {
         super(in);
+        this.reader = null;
         this.syntax = syntax;
     }
 
     public Expression nextExpression() throws IOException {
-        if (!queue.isEmpty()) {
-            return queue.poll();
+        if (reader != null) {
+            return reader.read();
         }
 
-        String line;
-        while ((line = ((BufferedReader) in).readLine()) != null) {
-            if (!remaining.isEmpty()) {
-                line = Strings.join(" ", asList(remaining, line));
-            }
+        while (queue.isEmpty()) {
+            if (position == limit) {
+                position = 0;
+                limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+                if (limit == 0) {
+                    if (!blank) {
+                        parse();
+                    }
 
-            Result<List<Expression>> result;
-            while ((result = syntax.apply(line)).isSuccess()) {
-                for (Expression expression : result.value()) {
-                    queue.offer(expression);
+                    break;
                 }
-
-                line = result.remaining();
             }
 
-            remaining = result.remaining();
+            int start = position;
+            boolean complete = false;
+            while (position < limit && !complete) {
+                complete = scan(buffer[position++]);
+            }
 
-            if (!queue.isEmpty()) {
-                return queue.poll();
+            pending.append(buffer, start, position - start);
+            if (complete) {
+                parse();
             }
         }
 
         return queue.poll();
     }
+
+    /**
+     * Takes the next character into account, returning whether it completes a datum at the top level.
+     */
+    private boolean scan(char character) {
+        if (string) {
+            string = character != '"';
+            return !string && depth == 0;
+        }
+
+        if (Character.isWhitespace(character)) {
+            return depth == 0 && !blank;
+        }
+
+        blank = false;
+        switch (character) {
+            case '"':
+                string = true;
+                return false;
+            case '(':
+                ++depth;
+                return false;
+            case ')':
+                depth = Math.max(depth - 1, 0);
+                return depth == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Parses the pending input, leaving what the grammar does not accept (yet) pending.
+     */
+    private void parse() {
+        String input = pending.toString();
+
+        int position = 0;
+
+        Result<List<Expression>> result;
+        while ((result = syntax.apply(input, position)).isSuccess()) {
+            for (Expression expression : result.value()) {
+                queue.offer(expression);
+            }
+
+            position = result.position();
+        }
+
+        pending.delete(0, position);
+
+        blank = true;
+        for (int index = 0; index < pending.length() && blank; ++index) {
+            blank = Character.isWhitespace(pending.charAt(index));
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package scheme;
+
+import scheme.expression.SymbolExpression;
+
+import java.util.Map;
+
+/**
+ * An environment frame backed by a plain array. Analyzed code addresses its variables by (depth, index)
+ * coordinates computed at analysis time; symbolic access is kept for code that is not analyzed.
+ */
+public class FrameEnvironment implements Environment {
+    private final Environment enclosing;
+
+    private final SymbolExpression[] variables;
+    private final Expression[] values;
+
+    public FrameEnvironment(Environment enclosing, SymbolExpression[] variables, Expression[] values) {
+        this.enclosing = enclosing;
+        this.variables = variables;
+        this.values = values;
+    }
+
+    public Environment enclosing() {
+        return enclosing;
+    }
+
+    private FrameEnvironment frame(int depth) {
+        FrameEnvironment result = this;
+        for (int count = 0; count < depth; ++count) {
+            result = (FrameEnvironment) result.enclosing;
+        }
+
+        return result;
+    }
+
+    public Expression lookup(int depth, int index) {
+        FrameEnvironment frame = frame(depth);
+
+        Expression result = frame.values[index];
+        if (result == null) {
+            throw new RuntimeException(String.format("Unassigned variable: `%s`", frame.variables[index]));
+        }
+
+        return result;
+    }
+
+    public void define(int index, Expression value) {
+        values[index] = value;
+    }
+
+    public void set(int depth, int index, Expression value) {
+        FrameEnvironment frame = frame(depth);
+        if (frame.values[index] == null) {
+            throw new RuntimeException(String.format("Unassigned variable: `%s`", frame.variables[index]));
+        }
+
+        frame.values[index] = value;
+    }
+
+    /**
+     * Returns the environment that encloses the innermost `depth` frames.
+     */
+    public Environment beyond(int depth) {
+        return frame(depth - 1).enclosing;
+    }
+
+    /**
+     * Returns the index of the variable in this frame, or `-1` if the frame does not declare it.
+     */
+    public int indexOf(SymbolExpression variable) {
+        for (int index = 0; index < variables.length; ++index) {
+            if (variables[index] == variable) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Environment extend(Map<SymbolExpression, Expression> bindings) {
+        return new DefaultEnvironment(this, bindings);
+    }
+
+    @Override
+    public Expression lookup(SymbolExpression variable) {
+        int index = indexOf(variable);
+        if (index < 0) {
+            return enclosing.lookup(variable);
+        }
+
+        return lookup(0, index);
+    }
+
+    @Override
+    public void define(SymbolExpression variable, Expression value) {
+        int index = indexOf(variable);
+        if (index < 0) {
+            throw new RuntimeException(String.format("Variable is not declared in the frame: `%s`", variable));
+        }
+
+        define(index, value);
+    }
+
+    @Override
+    public void set(SymbolExpression variable, Expression value) {
+        int index = indexOf(variable);
+        if (index < 0) {
+            enclosing.set(variable, value);
+            return;
+        }
+
+        set(0, index, value);
+    }
+}
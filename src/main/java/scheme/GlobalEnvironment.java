@@ -0,0 +1,65 @@
+package scheme;
+
+import scheme.expression.SymbolExpression;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The top-level environment. Each variable is held in a {@link Cell} that references can bind to once;
+ * `define` and `set!` update the cell in place. Every global environment starts with its own copy of the primitives.
+ */
+public final class GlobalEnvironment implements Environment {
+    private final Map<SymbolExpression, Cell> cells = new HashMap<>();
+
+    public GlobalEnvironment() {
+        for (Map.Entry<SymbolExpression, Expression> entry : DefaultEnvironment.PRIMITIVES.entrySet()) {
+            cell(entry.getKey()).assign(entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the cell of the variable, creating an unbound one if the variable has not been defined yet.
+     */
+    public Cell cell(SymbolExpression variable) {
+        Cell result = cells.get(variable);
+        if (result == null) {
+            result = Cell.make(variable);
+            cells.put(variable, result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Environment extend(Map<SymbolExpression, Expression> bindings) {
+        return new DefaultEnvironment(this, bindings);
+    }
+
+    @Override
+    public Expression lookup(SymbolExpression variable) {
+        Cell cell = cells.get(variable);
+        if (cell == null) {
+            throw new RuntimeException(String.format("Unbound variable: `%s`", variable));
+        }
+
+        return cell.value();
+    }
+
+    @Override
+    public void define(SymbolExpression variable, Expression value) {
+        cell(variable).assign(value);
+        DefaultEnvironment.invalidate(variable);
+    }
+
+    @Override
+    public void set(SymbolExpression variable, Expression value) {
+        Cell cell = cells.get(variable);
+        if (cell == null || !cell.isBound()) {
+            throw new RuntimeException(String.format("Unbound variable: `%s`", variable));
+        }
+
+        cell.assign(value);
+        DefaultEnvironment.invalidate(variable);
+    }
+}
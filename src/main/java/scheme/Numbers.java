@@ -0,0 +1,229 @@
+package scheme;
+
+import scheme.expression.BigIntegralExpression;
+import scheme.expression.FractionalExpression;
+import scheme.expression.IntegralExpression;
+import scheme.expression.RationalExpression;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * The numeric tower. Exact integers are held in a `long` ({@link IntegralExpression}) or, beyond its range,
+ * in a {@link BigInteger} ({@link BigIntegralExpression}); exact ratios of integers are {@link RationalExpression}s
+ * and inexact numbers are {@link FractionalExpression}s. An operation yields a number of the higher kind
+ * of its operands, an exact result being kept in the lowest kind that holds it. Integers held in a `long`
+ * are added, subtracted and multiplied in place, with a big integer computed only on overflow.
+ */
+public final class Numbers {
+    private static final int INTEGRAL = 0;
+    private static final int BIG_INTEGRAL = 1;
+    private static final int RATIONAL = 2;
+    private static final int FRACTIONAL = 3;
+
+    private Numbers() {
+    }
+
+    public static boolean isNumber(Expression expression) {
+        return expression instanceof IntegralExpression
+                || expression instanceof FractionalExpression
+                || expression instanceof BigIntegralExpression
+                || expression instanceof RationalExpression;
+    }
+
+    private static int kind(Expression expression) {
+        if (expression instanceof IntegralExpression) {
+            return INTEGRAL;
+        } else if (expression instanceof FractionalExpression) {
+            return FRACTIONAL;
+        } else if (expression instanceof BigIntegralExpression) {
+            return BIG_INTEGRAL;
+        } else if (expression instanceof RationalExpression) {
+            return RATIONAL;
+        }
+
+        throw new RuntimeException(String.format("Expression is not a number: %s", expression));
+    }
+
+    /**
+     * Returns the integer in the lowest kind that holds it.
+     */
+    public static Expression integer(BigInteger value) {
+        return value.bitLength() < Long.SIZE ? IntegralExpression.make(value.longValue()) : BigIntegralExpression.make(value);
+    }
+
+    /**
+     * Returns the ratio in lowest terms, as an integer if the denominator divides the numerator.
+     */
+    public static Expression ratio(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new RuntimeException("Division by zero");
+        } else if (denominator.signum() < 0) {
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+
+        BigInteger divisor = numerator.gcd(denominator);
+        if (!divisor.equals(BigInteger.ONE)) {
+            numerator = numerator.divide(divisor);
+            denominator = denominator.divide(divisor);
+        }
+
+        return denominator.equals(BigInteger.ONE) ? integer(numerator) : RationalExpression.make(numerator, denominator);
+    }
+
+    private static BigInteger numerator(Expression expression) {
+        if (expression instanceof IntegralExpression) {
+            return BigInteger.valueOf(((IntegralExpression) expression).value());
+        } else if (expression instanceof BigIntegralExpression) {
+            return ((BigIntegralExpression) expression).value();
+        }
+
+        return ((RationalExpression) expression).numerator();
+    }
+
+    private static BigInteger denominator(Expression expression) {
+        return expression instanceof RationalExpression
+                ? ((RationalExpression) expression).denominator()
+                : BigInteger.ONE;
+    }
+
+    public static double toDouble(Expression expression) {
+        switch (kind(expression)) {
+            case INTEGRAL:
+                return ((IntegralExpression) expression).value();
+            case BIG_INTEGRAL:
+                return ((BigIntegralExpression) expression).value().doubleValue();
+            case RATIONAL:
+                RationalExpression ratio = (RationalExpression) expression;
+                return new BigDecimal(ratio.numerator())
+                        .divide(new BigDecimal(ratio.denominator()), MathContext.DECIMAL64)
+                        .doubleValue();
+            default:
+                return ((FractionalExpression) expression).value();
+        }
+    }
+
+    private static long integral(Expression expression) {
+        return ((IntegralExpression) expression).value();
+    }
+
+    private static boolean areIntegral(Expression x, Expression y) {
+        return x instanceof IntegralExpression && y instanceof IntegralExpression;
+    }
+
+    public static Expression add(Expression x, Expression y) {
+        if (areIntegral(x, y)) {
+            try {
+                return IntegralExpression.make(Math.addExact(integral(x), integral(y)));
+            } catch (ArithmeticException overflow) {
+                return integer(numerator(x).add(numerator(y)));
+            }
+        }
+
+        switch (Math.max(kind(x), kind(y))) {
+            case FRACTIONAL:
+                return FractionalExpression.make(toDouble(x) + toDouble(y));
+            case RATIONAL:
+                return ratio(numerator(x).multiply(denominator(y)).add(numerator(y).multiply(denominator(x))),
+                        denominator(x).multiply(denominator(y)));
+            default:
+                return integer(numerator(x).add(numerator(y)));
+        }
+    }
+
+    public static Expression subtract(Expression x, Expression y) {
+        if (areIntegral(x, y)) {
+            try {
+                return IntegralExpression.make(Math.subtractExact(integral(x), integral(y)));
+            } catch (ArithmeticException overflow) {
+                return integer(numerator(x).subtract(numerator(y)));
+            }
+        }
+
+        switch (Math.max(kind(x), kind(y))) {
+            case FRACTIONAL:
+                return FractionalExpression.make(toDouble(x) - toDouble(y));
+            case RATIONAL:
+                return ratio(numerator(x).multiply(denominator(y)).subtract(numerator(y).multiply(denominator(x))),
+                        denominator(x).multiply(denominator(y)));
+            default:
+                return integer(numerator(x).subtract(numerator(y)));
+        }
+    }
+
+    public static Expression multiply(Expression x, Expression y) {
+        if (areIntegral(x, y)) {
+            try {
+                return IntegralExpression.make(Math.multiplyExact(integral(x), integral(y)));
+            } catch (ArithmeticException overflow) {
+                return integer(numerator(x).multiply(numerator(y)));
+            }
+        }
+
+        switch (Math.max(kind(x), kind(y))) {
+            case FRACTIONAL:
+                return FractionalExpression.make(toDouble(x) * toDouble(y));
+            case RATIONAL:
+                return ratio(numerator(x).multiply(numerator(y)), denominator(x).multiply(denominator(y)));
+            default:
+                return integer(numerator(x).multiply(numerator(y)));
+        }
+    }
+
+    /**
+     * Divides exactly unless either number is inexact: the quotient of two integers is a ratio.
+     */
+    public static Expression divide(Expression x, Expression y) {
+        if (areIntegral(x, y)) {
+            long dividend = integral(x);
+            long divisor = integral(y);
+            if (divisor != 0 && dividend % divisor == 0 && !(dividend == Long.MIN_VALUE && divisor == -1)) {
+                return IntegralExpression.make(dividend / divisor);
+            }
+        }
+
+        if (Math.max(kind(x), kind(y)) == FRACTIONAL) {
+            double divisor = toDouble(y);
+            if (divisor == 0.) {
+                throw new RuntimeException("Division by zero");
+            }
+
+            return FractionalExpression.make(toDouble(x) / divisor);
+        }
+
+        return ratio(numerator(x).multiply(denominator(y)), denominator(x).multiply(numerator(y)));
+    }
+
+    public static Expression negate(Expression x) {
+        switch (kind(x)) {
+            case INTEGRAL:
+                long value = integral(x);
+                return value == Long.MIN_VALUE
+                        ? integer(BigInteger.valueOf(value).negate())
+                        : IntegralExpression.make(-value);
+            case BIG_INTEGRAL:
+                return integer(numerator(x).negate());
+            case RATIONAL:
+                return RationalExpression.make(numerator(x).negate(), denominator(x));
+            default:
+                return FractionalExpression.make(-toDouble(x));
+        }
+    }
+
+    /**
+     * Compares two numbers exactly unless either number is inexact.
+     */
+    public static int compare(Expression x, Expression y) {
+        if (areIntegral(x, y)) {
+            return Long.compare(integral(x), integral(y));
+        }
+
+        if (Math.max(kind(x), kind(y)) == FRACTIONAL) {
+            return Double.compare(toDouble(x), toDouble(y));
+        }
+
+        return numerator(x).multiply(denominator(y)).compareTo(numerator(y).multiply(denominator(x)));
+    }
+}
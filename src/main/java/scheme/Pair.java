@@ -7,6 +7,10 @@ public class Pair implements Expression {
         return new Pair(expressions.get(0), expressions.get(1));
     }
 
+    public static Pair make(Expression car, Expression cdr) {
+        return new Pair(car, cdr);
+    }
+
 
     private Expression car;
     private Expression cdr;
@@ -37,8 +41,26 @@ public class Pair implements Expression {
         throw new UnsupportedOperationException("Evaluation is not supported");
     }
 
+    /**
+     * Writes the chain of pairs starting here as a list, improper if it does not end in the empty list.
+     */
     @Override
     public String toString() {
-        return String.format("(%s . %s)", car, cdr);
+        StringBuilder result = new StringBuilder("(");
+
+        String delimiter = "";
+        Expression rest = this;
+        while (rest instanceof Pair && !Utilities.isNull(rest)) {
+            Pair pair = (Pair) rest;
+            result.append(delimiter).append(pair.car);
+            delimiter = " ";
+            rest = pair.cdr;
+        }
+
+        if (!Utilities.isNull(rest)) {
+            result.append(" . ").append(rest);
+        }
+
+        return result.append(')').toString();
     }
 }
@@ -2,6 +2,50 @@ package scheme;
 
 import scheme.expression.CombinationExpression;
 
+import java.util.Arrays;
+
+/**
+ * A procedure. Besides a list or an array of arguments a procedure can be applied to a fixed number of arguments
+ * through `apply0` to `apply3`, which by default collect the arguments into an array.
+ */
 public interface Procedure extends Expression {
     Expression apply(CombinationExpression arguments);
+
+    /**
+     * Applies the procedure to the arguments held in an array. The procedure may keep the array
+     * (as the frame of a compound procedure, say), so the caller hands it over and must not modify it afterwards.
+     */
+    default Expression apply(Expression[] arguments) {
+        return apply(CombinationExpression.make(Arrays.asList(arguments)));
+    }
+
+    default Expression apply0() {
+        return apply(new Expression[0]);
+    }
+
+    default Expression apply1(Expression x) {
+        return apply(new Expression[]{x});
+    }
+
+    default Expression apply2(Expression x, Expression y) {
+        return apply(new Expression[]{x, y});
+    }
+
+    default Expression apply3(Expression x, Expression y, Expression z) {
+        return apply(new Expression[]{x, y, z});
+    }
+
+    /**
+     * Applies the procedure in a tail position, see {@link Expression#evalTail(Environment)}.
+     */
+    default Expression applyTail(CombinationExpression arguments) {
+        return apply(arguments);
+    }
+
+    /**
+     * Applies the procedure to the arguments held in an array in a tail position.
+     */
+    default Expression applyTail(Expression[] arguments) {
+        return apply(arguments);
+    }
 }
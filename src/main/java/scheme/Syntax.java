@@ -46,6 +46,13 @@ public final class Syntax {
 
     private static final Parser.Reference<Expression> REF_EXPRESSION = Parser.reference();
 
+    /**
+     * A subexpression. Special forms that fail after parsing some of their subexpressions (`(if x y)` parsed
+     * as a combination, say) leave them to the next alternative, so their results are memoized while
+     * a program is parsed.
+     */
+    private static final Parser<Expression> SUBEXPRESSION = Parsers.memoized(REF_EXPRESSION.parser());
+
     static final Parser<Expression> EXPRESSION_COMBINATION =
             Parsers.as(Utilities::makeCombination,
                     Parsers.parenthesised(
@@ -53,7 +60,7 @@ public final class Syntax {
                                     Parsers.optional(Parsers.whitespaces()),
                                     Parsers.oneOrMoreSeparatedBy(
                                             Parsers.whitespaces(),
-                                            REF_EXPRESSION.parser()),
+                                            SUBEXPRESSION),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_QUOTE =
@@ -111,7 +118,7 @@ public final class Syntax {
                                                                     Utilities::makeCombination,
                                                                     Parsers.oneOrMoreSeparatedBy(
                                                                             Parsers.whitespaces(),
-                                                                            REF_EXPRESSION.parser()))))),
+                                                                            SUBEXPRESSION))))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_DEFINITION =
@@ -128,7 +135,7 @@ public final class Syntax {
                                                             Parsers.separatedBy(
                                                                     Parsers.whitespaces(),
                                                                     EXPRESSION_SYMBOL,
-                                                                    REF_EXPRESSION.parser()),
+                                                                    SUBEXPRESSION),
                                                             Parsers.separatedBy(
                                                                     Parsers.whitespaces(),
                                                                     EXPRESSION_COMBINATION,
@@ -136,7 +143,22 @@ public final class Syntax {
                                                                             Utilities::makeCombination,
                                                                             Parsers.oneOrMoreSeparatedBy(
                                                                                     Parsers.whitespaces(),
-                                                                                    REF_EXPRESSION.parser())))))),
+                                                                                    SUBEXPRESSION)))))),
+                                    Parsers.optional(Parsers.whitespaces()))));
+
+    static final Parser<Expression> EXPRESSION_RECORD_TYPE =
+            Parsers.as(
+                    Utilities::makeRecordType,
+                    Parsers.parenthesised(
+                            Parsers.between(
+                                    Parsers.optional(Parsers.whitespaces()),
+                                    Parsers.after(
+                                            Parsers.string("define-record-type"),
+                                            Parsers.after(
+                                                    Parsers.whitespaces(),
+                                                    Parsers.oneOrMoreSeparatedBy(
+                                                            Parsers.whitespaces(),
+                                                            SUBEXPRESSION))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_ASSIGNMENT =
@@ -152,7 +174,7 @@ public final class Syntax {
                                                     Parsers.separatedBy(
                                                             Parsers.whitespaces(),
                                                             EXPRESSION_SYMBOL,
-                                                            REF_EXPRESSION.parser()))),
+                                                            SUBEXPRESSION))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_BEGIN =
@@ -167,7 +189,7 @@ public final class Syntax {
                                                     Parsers.whitespaces(),
                                                     Parsers.oneOrMoreSeparatedBy(
                                                             Parsers.whitespaces(),
-                                                            REF_EXPRESSION.parser()))),
+                                                            SUBEXPRESSION))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_IF =
@@ -182,9 +204,9 @@ public final class Syntax {
                                                     Parsers.whitespaces(),
                                                     Parsers.separatedBy(
                                                             Parsers.whitespaces(),
-                                                            REF_EXPRESSION.parser(),
-                                                            REF_EXPRESSION.parser(),
-                                                            REF_EXPRESSION.parser()))),
+                                                            SUBEXPRESSION,
+                                                            SUBEXPRESSION,
+                                                            SUBEXPRESSION))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_COND =
@@ -199,7 +221,7 @@ public final class Syntax {
                                                     Parsers.whitespaces(),
                                                     Parsers.oneOrMoreSeparatedBy(
                                                             Parsers.whitespaces(),
-                                                            REF_EXPRESSION.parser()))),
+                                                            SUBEXPRESSION))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION_LET =
@@ -219,7 +241,7 @@ public final class Syntax {
                                                                     Utilities::makeCombination,
                                                                     Parsers.oneOrMoreSeparatedBy(
                                                                             Parsers.whitespaces(),
-                                                                            REF_EXPRESSION.parser()))))),
+                                                                            SUBEXPRESSION))))),
                                     Parsers.optional(Parsers.whitespaces()))));
 
     static final Parser<Expression> EXPRESSION =
@@ -232,6 +254,7 @@ public final class Syntax {
                     EXPRESSION_QUOTE,
                     EXPRESSION_LAMBDA,
                     EXPRESSION_DEFINITION,
+                    EXPRESSION_RECORD_TYPE,
                     EXPRESSION_ASSIGNMENT,
                     EXPRESSION_BEGIN,
                     EXPRESSION_IF,
@@ -245,12 +268,13 @@ public final class Syntax {
 
 
     public static final Parser<List<Expression>> PROGRAM =
-            Parsers.between(
-                    Parsers.optional(Parsers.whitespaces()),
-                    Parsers.oneOrMoreSeparatedBy(
-                            Parsers.whitespaces(),
-                            EXPRESSION),
-                    Parsers.optional(Parsers.whitespaces()));
+            Parsers.packrat(
+                    Parsers.between(
+                            Parsers.optional(Parsers.whitespaces()),
+                            Parsers.oneOrMoreSeparatedBy(
+                                    Parsers.whitespaces(),
+                                    EXPRESSION),
+                            Parsers.optional(Parsers.whitespaces())));
 
 
     private static final Parser.Reference<Expression> REF_INTERPRETED = Parser.reference();
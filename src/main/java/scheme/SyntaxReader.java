@@ -0,0 +1,428 @@
+package scheme;
+
+import scheme.expression.SymbolExpression;
+import scheme.expression.UnitExpression;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+
+/**
+ * A hand-written reader producing the same expressions as {@link Syntax#PROGRAM} and
+ * {@link Syntax#INTERPRETED_PROGRAM}. Characters are taken from a {@link Reader} a block at a time, and the lists
+ * being read are kept on an explicit stack, so nesting is limited by memory rather than by the Java stack.
+ * <p>
+ * A list is turned into an expression once it is closed: into a special form if it has the shape the grammar
+ * requires of one, into a combination otherwise.
+ * <p>
+ * The reader and the grammar differ on some inputs. The reader accepts `(a(b))`, `( )` or `' x`, which
+ * the grammar rejects. It rejects an atom that starts like a number but is not one (`12abc` or `1.5.2`),
+ * which the grammar reads at the top level as a number followed by the rest (`12` and `abc`, `1.5` and `.2`).
+ * Every other input the grammar accepts is read into the same expressions.
+ */
+public final class SyntaxReader {
+    public enum Grammar {
+        PROGRAM,
+        INTERPRETED_PROGRAM
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Pattern PATTERN_FRACTIONAL = Pattern.compile("\\d+\\.\\d+|\\d+\\.|\\.\\d+");
+
+    /**
+     * A datum read, with what is needed to read the list enclosing it.
+     */
+    private static final class Datum {
+        private static final Datum UNIT =
+                new Datum(UnitExpression.make(), UnitExpression.make(), null, Collections.emptyList(), false);
+
+        /**
+         * The datum read as an expression.
+         */
+        private final Expression expression;
+
+        /**
+         * The datum read as quoted data: a special form is quoted as the list it is written as.
+         */
+        private final Expression data;
+
+        /**
+         * The text of an atom made of symbol characters only, which may name a variable even if it is a number.
+         */
+        private final String name;
+
+        /**
+         * The elements of a list, or `null` for an atom.
+         */
+        private final List<Datum> elements;
+
+        private final boolean abbreviation;
+
+        private Datum(Expression expression, Expression data, String name, List<Datum> elements, boolean abbreviation) {
+            this.expression = expression;
+            this.data = data;
+            this.name = name;
+            this.elements = elements;
+            this.abbreviation = abbreviation;
+        }
+
+        private boolean isName() {
+            return name != null;
+        }
+
+        private boolean isList() {
+            return elements != null && !elements.isEmpty();
+        }
+
+        /**
+         * Returns the elements of a list of names as symbols, or `null` if the datum is not one.
+         */
+        private List<Expression> names() {
+            if (elements == null) {
+                return null;
+            }
+
+            List<Expression> result = new ArrayList<>(elements.size());
+            for (Datum element : elements) {
+                if (!element.isName()) {
+                    return null;
+                }
+
+                result.add(SymbolExpression.make(element.name));
+            }
+
+            return result;
+        }
+    }
+
+
+    private final Reader in;
+    private final Grammar grammar;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * The lists being read, innermost last. A `null` stands for a quote abbreviation waiting for its datum.
+     */
+    private final List<List<Datum>> stack = new ArrayList<>();
+
+    public SyntaxReader(Reader in, Grammar grammar) {
+        this.in = in;
+        this.grammar = grammar;
+    }
+
+    /**
+     * Returns the next expression, or `null` at the end of the input. After an error the rest of the malformed
+     * datum is skipped, so that reading goes on with the datum following it.
+     */
+    public Expression read() throws IOException {
+        try {
+            return next();
+        } catch (RuntimeException exception) {
+            int depth = 0;
+            for (List<Datum> list : stack) {
+                if (list != null) {
+                    ++depth;
+                }
+            }
+
+            stack.clear();
+            skip(depth);
+            throw exception;
+        }
+    }
+
+    /**
+     * Skips the input up to the end of the lists open at the given depth, stepping over strings.
+     */
+    private void skip(int depth) throws IOException {
+        boolean string = false;
+        for (int character; depth > 0 && (character = peek()) >= 0; ++position) {
+            if (string) {
+                string = character != '"';
+            } else if (character == '"') {
+                string = true;
+            } else if (character == '(') {
+                ++depth;
+            } else if (character == ')') {
+                --depth;
+            }
+        }
+    }
+
+    private Expression next() throws IOException {
+        while (true) {
+            Datum datum;
+            int character = skipWhitespace();
+            switch (character) {
+                case -1:
+                    if (stack.isEmpty()) {
+                        return null;
+                    }
+
+                    throw new RuntimeException("Unexpected end of input");
+                case '(':
+                    ++position;
+                    stack.add(new ArrayList<>());
+                    continue;
+                case ')':
+                    ++position;
+                    if (stack.isEmpty() || top() == null) {
+                        throw new RuntimeException("Unexpected: `)`");
+                    }
+
+                    datum = list(stack.remove(stack.size() - 1));
+                    break;
+                case '\'':
+                    ++position;
+                    if (!stack.isEmpty() && top() == null) {
+                        throw new RuntimeException("Unexpected: `'`");
+                    }
+
+                    stack.add(null);
+                    continue;
+                case '"':
+                    ++position;
+                    datum = string();
+                    break;
+                default:
+                    datum = atom();
+            }
+
+            while (!stack.isEmpty() && top() == null) {
+                stack.remove(stack.size() - 1);
+                datum = abbreviation(datum);
+            }
+
+            if (stack.isEmpty()) {
+                return datum.expression;
+            }
+
+            top().add(datum);
+        }
+    }
+
+    private List<Datum> top() {
+        return stack.get(stack.size() - 1);
+    }
+
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            position = 0;
+            limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+            if (limit == 0) {
+                return -1;
+            }
+        }
+
+        return buffer[position];
+    }
+
+    private int skipWhitespace() throws IOException {
+        int character;
+        while ((character = peek()) >= 0 && Character.isWhitespace(character)) {
+            ++position;
+        }
+
+        return character;
+    }
+
+    private static boolean isDelimiter(char character) {
+        return Character.isWhitespace(character)
+                || character == '('
+                || character == ')'
+                || character == '"'
+                || character == '\'';
+    }
+
+    private static boolean isSymbolCharacter(char character) {
+        return Character.isLetter(character)
+                || Character.isDigit(character)
+                || "+-*/<=>?!".indexOf(character) >= 0;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+
+    private Datum string() throws IOException {
+        text.setLength(0);
+        while (peek() >= 0) {
+            int start = position;
+            while (position < limit && buffer[position] != '"') {
+                ++position;
+            }
+
+            text.append(buffer, start, position - start);
+            if (position < limit) {
+                ++position;
+
+                Expression expression = Utilities.makeString(text.toString());
+                return new Datum(expression, expression, null, null, false);
+            }
+        }
+
+        throw new RuntimeException("Unexpected end of input");
+    }
+
+    private Datum atom() throws IOException {
+        text.setLength(0);
+        while (peek() >= 0) {
+            int start = position;
+            while (position < limit && !isDelimiter(buffer[position])) {
+                ++position;
+            }
+
+            text.append(buffer, start, position - start);
+            if (position < limit) {
+                break;
+            }
+        }
+
+        return atom(text.toString());
+    }
+
+    /**
+     * Reads an atom the way {@link Syntax#EXPRESSION} does: an atom starting like a number must be one.
+     */
+    private static Datum atom(String token) {
+        boolean symbolic = true;
+        boolean integral = true;
+        for (int index = 0; index < token.length(); ++index) {
+            char character = token.charAt(index);
+            symbolic &= isSymbolCharacter(character);
+            integral &= isDigit(character);
+        }
+
+        String name = symbolic ? token : null;
+
+        char first = token.charAt(0);
+        if (isDigit(first) || first == '.') {
+            if (integral) {
+                Expression expression = Utilities.makeIntegral(token);
+                return new Datum(expression, expression, name, null, false);
+            }
+
+            if (PATTERN_FRACTIONAL.matcher(token).matches()) {
+                Expression expression = Utilities.makeFractional(token);
+                return new Datum(expression, expression, name, null, false);
+            }
+        } else if (symbolic) {
+            Expression expression = Utilities.makeSymbol(token);
+            return new Datum(expression, expression, name, null, false);
+        }
+
+        throw new RuntimeException(String.format("Unexpected: `%s`", token));
+    }
+
+    private Datum abbreviation(Datum datum) {
+        Expression expression = grammar == Grammar.PROGRAM
+                ? Utilities.makeQuote(datum.data)
+                : Utilities.makeQuoteCombination(datum.data);
+
+        return new Datum(expression, expression, null, null, true);
+    }
+
+    private Datum list(List<Datum> elements) {
+        if (elements.isEmpty()) {
+            return Datum.UNIT;
+        }
+
+        Expression combination = Utilities.makeCombination(expressions(elements, 0));
+        Expression expression = grammar == Grammar.PROGRAM ? form(elements) : null;
+
+        return new Datum(expression == null ? combination : expression, combination, null, elements, false);
+    }
+
+    private static List<Expression> expressions(List<Datum> elements, int from) {
+        List<Expression> result = new ArrayList<>(elements.size() - from);
+        for (int index = from; index < elements.size(); ++index) {
+            result.add(elements.get(index).expression);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the special form a list reads as, or `null` if it reads as a combination.
+     */
+    private static Expression form(List<Datum> elements) {
+        Datum head = elements.get(0);
+        if (head.name == null) {
+            return null;
+        }
+
+        int size = elements.size();
+        Datum first = size > 1 ? elements.get(1) : null;
+        switch (head.name) {
+            case "quote":
+                if (size == 2 && !first.abbreviation) {
+                    return Utilities.makeQuote(first.data);
+                }
+
+                return null;
+            case "lambda": {
+                List<Expression> parameters = size > 2 ? first.names() : null;
+                if (parameters != null) {
+                    return Utilities.makeLambda(asList(
+                            Utilities.makeCombination(parameters),
+                            Utilities.makeCombination(expressions(elements, 2))));
+                }
+
+                return null;
+            }
+            case "define":
+                if (size == 3 && first.isName()) {
+                    return Utilities.makeDefinition(asList(
+                            SymbolExpression.make(first.name),
+                            elements.get(2).expression));
+                }
+
+                if (size > 2 && first.isList()) {
+                    return Utilities.makeDefinition(asList(
+                            first.data,
+                            Utilities.makeCombination(expressions(elements, 2))));
+                }
+
+                return null;
+            case "define-record-type":
+                return size > 1 ? Utilities.makeRecordType(expressions(elements, 1)) : null;
+            case "set!":
+                if (size == 3 && first.isName()) {
+                    return Utilities.makeAssignment(asList(
+                            SymbolExpression.make(first.name),
+                            elements.get(2).expression));
+                }
+
+                return null;
+            case "begin":
+                return size > 1 ? Utilities.makeBegin(expressions(elements, 1)) : null;
+            case "if":
+                return size == 4 ? Utilities.makeIf(expressions(elements, 1)) : null;
+            case "cond":
+                return size > 1 ? Utilities.makeCond(expressions(elements, 1)) : null;
+            case "let":
+                if (size > 2 && first.isList()) {
+                    return Utilities.makeLet(asList(
+                            first.data,
+                            Utilities.makeCombination(expressions(elements, 2))));
+                }
+
+                return null;
+            default:
+                return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package scheme;
 
 import scheme.expression.*;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,13 +28,61 @@ public final class Utilities {
     }
 
     public static Pair asPair(Expression expression) {
-        if (expression instanceof Pair) {
+        if (expression instanceof Pair && !isNull(expression)) {
             return (Pair) expression;
         }
 
         throw new RuntimeException(String.format("Not a pair: %s", expression));
     }
 
+    public static VectorExpression asVector(Expression expression) {
+        if (expression instanceof VectorExpression) {
+            return (VectorExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not a vector: %s", expression));
+    }
+
+    public static S64VectorExpression asS64Vector(Expression expression) {
+        if (expression instanceof S64VectorExpression) {
+            return (S64VectorExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not an s64vector: %s", expression));
+    }
+
+    public static F64VectorExpression asF64Vector(Expression expression) {
+        if (expression instanceof F64VectorExpression) {
+            return (F64VectorExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not an f64vector: %s", expression));
+    }
+
+    public static StringExpression asString(Expression expression) {
+        if (expression instanceof StringExpression) {
+            return (StringExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not a string: %s", expression));
+    }
+
+    public static OutputPortExpression asOutputPort(Expression expression) {
+        if (expression instanceof OutputPortExpression) {
+            return (OutputPortExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not an output port: %s", expression));
+    }
+
+    public static HashTableExpression asHashTable(Expression expression) {
+        if (expression instanceof HashTableExpression) {
+            return (HashTableExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not a hash table: %s", expression));
+    }
+
     public static CombinationExpression asCombination(Expression expression) {
         if (expression instanceof CombinationExpression) {
             return (CombinationExpression) expression;
@@ -60,7 +109,7 @@ public final class Utilities {
     }
 
     public static boolean isFalse(Expression expression) {
-        return Core.FALSE.equals(expression);
+        return expression == Core.FALSE;
     }
 
     public static boolean isTrue(Expression expression) {
@@ -71,8 +120,47 @@ public final class Utilities {
         return Core.UNIT.equals(expression);
     }
 
+    /**
+     * Returns whether the expression is a proper list: a chain of pairs or combinations, which `set-cdr!` may have
+     * mixed, ending in the empty list.
+     */
     public static boolean isList(Expression expression) {
-        return expression instanceof CombinationExpression;
+        Expression slow = expression;
+        Expression fast = expression;
+        while (true) {
+            for (int step = 0; step < 2; ++step) {
+                if (isNull(fast)) {
+                    return true;
+                }
+
+                if (!(fast instanceof Pair)) {
+                    return false;
+                }
+
+                fast = ((Pair) fast).cdr();
+            }
+
+            slow = ((Pair) slow).cdr();
+            if (slow == fast) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns the elements of a proper list.
+     */
+    public static Expression[] listToArray(Expression expression) {
+        if (!isList(expression)) {
+            throw new RuntimeException(String.format("Not a list: %s", expression));
+        }
+
+        List<Expression> result = new ArrayList<>();
+        for (Expression rest = expression; !isNull(rest); rest = ((Pair) rest).cdr()) {
+            result.add(((Pair) rest).car());
+        }
+
+        return result.toArray(new Expression[0]);
     }
 
     public static boolean isPair(Expression expression) {
@@ -80,7 +168,7 @@ public final class Utilities {
     }
 
     public static boolean isNumber(Expression expression) {
-        return expression instanceof IntegralExpression || expression instanceof FractionalExpression;
+        return Numbers.isNumber(expression);
     }
 
     public static boolean isString(Expression expression) {
@@ -107,11 +195,11 @@ public final class Utilities {
     }
 
     public static Expression makeIntegral(String x) {
-        return IntegralExpression.make(Long.valueOf(x));
+        return x.length() < 19 ? IntegralExpression.make(Long.parseLong(x)) : Numbers.integer(new BigInteger(x));
     }
 
     public static Expression makeFractional(String x) {
-        return FractionalExpression.make(Double.valueOf(x));
+        return FractionalExpression.make(Double.parseDouble(x));
     }
 
     public static Expression makeString(String x) {
@@ -182,6 +270,51 @@ public final class Utilities {
         return CondExpression.make(expressions.stream().map(Utilities::asCombination).collect(Collectors.toList()));
     }
 
+    private static Expression define(SymbolExpression variable, Expression value) {
+        return DefinitionExpression.make(variable, QuoteExpression.make(value));
+    }
+
+    /**
+     * Expands a record type definition into the definitions of the type, its constructor, predicate,
+     * accessors and modifiers.
+     */
+    public static Expression makeRecordType(List<Expression> expressions) {
+        if (expressions.size() < 3) {
+            throw new RuntimeException("Malformed record type definition");
+        }
+
+        List<CombinationExpression> specifications = mapAsCombination(expressions.subList(3, expressions.size()));
+
+        List<SymbolExpression> fields = new ArrayList<>(specifications.size());
+        for (CombinationExpression specification : specifications) {
+            fields.add(asSymbol(specification.car()));
+        }
+
+        RecordTypeExpression type = RecordTypeExpression.make(asSymbol(expressions.get(0)), fields);
+        List<Expression> constructor = asCombination(expressions.get(1)).expressions();
+
+        List<Expression> result = new ArrayList<>();
+        result.add(define(type.name(), type));
+        result.add(define(
+                asSymbol(constructor.get(0)),
+                type.constructor(mapAsSymbol(constructor.subList(1, constructor.size())))));
+        result.add(define(asSymbol(expressions.get(2)), type.predicate()));
+
+        for (CombinationExpression specification : specifications) {
+            List<SymbolExpression> names = mapAsSymbol(specification.expressions());
+            if (names.size() < 2 || names.size() > 3) {
+                throw new RuntimeException(String.format("Malformed field specification: %s", specification));
+            }
+
+            result.add(define(names.get(1), type.accessor(names.get(0))));
+            if (names.size() == 3) {
+                result.add(define(names.get(2), type.modifier(names.get(0))));
+            }
+        }
+
+        return BeginExpression.make(result);
+    }
+
     public static Expression makeLet(List<Expression> expressions) {
         return LetExpression.make(
                 mapAsCombination(asCombination(expressions.get(0)).expressions()),
@@ -0,0 +1,203 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Expression;
+import scheme.Utilities;
+import scheme.expression.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Syntactic analysis (SICP 4.1.7): converts an {@link Expression} tree once into a graph of executable nodes.
+ * Derived forms (`cond`, `let`) are expanded here, so evaluating the result never rebuilds any syntax.
+ * <p>
+ * Variables bound by `lambda`, `let` or an internal `define` are resolved to lexical (depth, index) addresses
+ * into {@link scheme.FrameEnvironment} frames; all the other variables are looked up by name.
+ * <p>
+ * Binary arithmetic and comparisons become nodes specializing themselves on the types of their operands.
+ */
+public final class Analyzer {
+    private static final SymbolExpression ELSE = SymbolExpression.make("else");
+
+    private static final List<SymbolExpression> ARITHMETIC = Arrays.asList(
+            SymbolExpression.make("+"),
+            SymbolExpression.make("-"),
+            SymbolExpression.make("*"));
+
+    private static final List<SymbolExpression> COMPARISONS = Arrays.asList(
+            SymbolExpression.make("<"),
+            SymbolExpression.make("<="),
+            SymbolExpression.make("="),
+            SymbolExpression.make(">="),
+            SymbolExpression.make(">"));
+
+    public static Expression analyze(Expression expression) {
+        return analyze(expression, null);
+    }
+
+    private static Expression analyze(Expression expression, Scope scope) {
+        if (expression instanceof SymbolExpression) {
+            return analyzeVariable((SymbolExpression) expression, scope);
+        } else if (expression instanceof QuoteExpression) {
+            return ConstantNode.make(expression, ((QuoteExpression) expression).expression());
+        } else if (expression instanceof AssignmentExpression) {
+            return analyzeAssignment((AssignmentExpression) expression, scope);
+        } else if (expression instanceof DefinitionExpression) {
+            return analyzeDefinition((DefinitionExpression) expression, scope);
+        } else if (expression instanceof IfExpression) {
+            return analyzeIf((IfExpression) expression, scope);
+        } else if (expression instanceof LambdaExpression) {
+            return analyzeLambda((LambdaExpression) expression, scope);
+        } else if (expression instanceof BeginExpression) {
+            return analyzeSequence(expression, ((BeginExpression) expression).expressions(), scope);
+        } else if (expression instanceof CondExpression) {
+            return analyzeCond((CondExpression) expression, scope);
+        } else if (expression instanceof LetExpression) {
+            return analyzeLet((LetExpression) expression, scope);
+        } else if (expression instanceof UnitExpression) {
+            return ConstantNode.make(expression, expression);
+        } else if (expression instanceof CombinationExpression) {
+            return analyzeApplication((CombinationExpression) expression, scope);
+        } else if (Utilities.isNumber(expression) || Utilities.isString(expression)) {
+            return ConstantNode.make(expression, expression);
+        }
+
+        return InterpretedNode.make(expression);
+    }
+
+    private static Expression[] mapAnalyze(List<Expression> expressions, Scope scope) {
+        Expression[] result = new Expression[expressions.size()];
+        int index = 0;
+        for (Expression expression : expressions) {
+            result[index++] = analyze(expression, scope);
+        }
+
+        return result;
+    }
+
+
+    private static Expression analyzeVariable(SymbolExpression variable, Scope scope) {
+        int depth = 0;
+        for (Scope each = scope; each != null; each = each.enclosing(), ++depth) {
+            int index = each.indexOf(variable);
+            if (index >= 0) {
+                return LocalVariableNode.make(variable, depth, index);
+            }
+        }
+
+        return VariableNode.make(variable, depth);
+    }
+
+    private static Expression analyzeAssignment(AssignmentExpression expression, Scope scope) {
+        Expression value = analyze(expression.value(), scope);
+
+        int depth = 0;
+        for (Scope each = scope; each != null; each = each.enclosing(), ++depth) {
+            int index = each.indexOf(expression.variable());
+            if (index >= 0) {
+                return LocalAssignmentNode.make(expression, depth, index, value);
+            }
+        }
+
+        return AssignmentNode.make(expression, expression.variable(), depth, value);
+    }
+
+    private static Expression analyzeDefinition(DefinitionExpression expression, Scope scope) {
+        if (scope == null) {
+            return DefinitionNode.make(expression, expression.variable(), analyze(expression.value(), null));
+        }
+
+        int index = scope.declare(expression.variable());
+        return LocalDefinitionNode.make(expression, index, analyze(expression.value(), scope));
+    }
+
+    private static Expression analyzeIf(IfExpression expression, Scope scope) {
+        return IfNode.make(
+                expression,
+                analyze(expression.predicate(), scope),
+                analyze(expression.consequent(), scope),
+                analyze(expression.alternative(), scope));
+    }
+
+    private static Expression analyzeLambda(LambdaExpression expression, Scope scope) {
+        Scope extended = Scope.make(scope, expression.parameters());
+        extended.declareDefinitions(expression.expressions());
+
+        Expression[] body = mapAnalyze(expression.expressions(), extended);
+
+        return LambdaNode.make(expression, expression.parameters(), extended.variables(), body);
+    }
+
+    private static Expression analyzeSequence(Expression source, List<Expression> expressions, Scope scope) {
+        if (expressions.isEmpty()) {
+            return ConstantNode.make(source, Core.UNIT);
+        } else if (expressions.size() == 1) {
+            return analyze(expressions.get(0), scope);
+        }
+
+        return SequenceNode.make(source, mapAnalyze(expressions, scope));
+    }
+
+    private static Expression analyzeCond(CondExpression expression, Scope scope) {
+        Expression result = ConstantNode.make(expression, Core.FALSE);
+
+        List<CombinationExpression> clauses = expression.clauses();
+        for (int index = clauses.size() - 1; index >= 0; --index) {
+            CombinationExpression clause = clauses.get(index);
+            Expression actions = analyzeSequence(clause, clause.rest().expressions(), scope);
+
+            result = ELSE.equals(clause.car())
+                    ? actions
+                    : IfNode.make(clause, analyze(clause.car(), scope), actions, result);
+        }
+
+        return result;
+    }
+
+    private static Expression analyzeLet(LetExpression expression, Scope scope) {
+        List<CombinationExpression> bindings = expression.bindings();
+
+        List<SymbolExpression> variables = new ArrayList<>(bindings.size());
+        Expression[] values = new Expression[bindings.size()];
+        for (int index = 0; index < bindings.size(); ++index) {
+            CombinationExpression binding = bindings.get(index);
+            variables.add(Utilities.asSymbol(binding.car()));
+            values[index] = analyze(binding.rest().car(), scope);
+        }
+
+        Scope extended = Scope.make(scope, variables);
+        extended.declareDefinitions(expression.expressions());
+
+        Expression body = analyzeSequence(expression, expression.expressions(), extended);
+
+        return LetNode.make(expression, extended.variables(), values, body);
+    }
+
+    private static Expression analyzeApplication(CombinationExpression expression, Scope scope) {
+        List<Expression> operands = expression.rest().expressions();
+        if (operands.size() == 2) {
+            int operation = ARITHMETIC.indexOf(expression.car());
+            if (operation >= 0) {
+                return ArithmeticNode.make(expression, operation,
+                        analyze(expression.car(), scope),
+                        analyze(operands.get(0), scope),
+                        analyze(operands.get(1), scope));
+            }
+
+            int comparison = COMPARISONS.indexOf(expression.car());
+            if (comparison >= 0) {
+                return ComparisonNode.make(expression, comparison,
+                        analyze(expression.car(), scope),
+                        analyze(operands.get(0), scope),
+                        analyze(operands.get(1), scope));
+            }
+        }
+
+        return ApplicationNode.make(
+                expression,
+                analyze(expression.car(), scope),
+                mapAnalyze(expression.rest().expressions(), scope));
+    }
+}
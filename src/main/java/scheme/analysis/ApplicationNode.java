@@ -0,0 +1,79 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.Utilities;
+import scheme.procedure.CompoundProcedure;
+
+/**
+ * An application. An operator that is a free variable is resolved through an {@link InlineCache}.
+ */
+final class ApplicationNode extends Node {
+    static ApplicationNode make(Expression source, Expression operator, Expression[] operands) {
+        return new ApplicationNode(source, operator, operands);
+    }
+
+
+    private final Expression operator;
+    private final Expression[] operands;
+
+    private final InlineCache cache;
+
+    private ApplicationNode(Expression source, Expression operator, Expression[] operands) {
+        super(source);
+        this.operator = operator;
+        this.operands = operands;
+        this.cache = InlineCache.make(operator);
+    }
+
+    private Expression evalOperator(Environment environment) {
+        return cache == null ? operator.eval(environment) : cache.lookup(environment);
+    }
+
+    private Expression[] evalOperands(Environment environment) {
+        Expression[] result = new Expression[operands.length];
+        for (int index = 0; index < operands.length; ++index) {
+            result[index] = operands[index].eval(environment);
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies the procedure through the entry point for the number of operands.
+     */
+    private Expression apply(Procedure procedure, Environment environment) {
+        switch (operands.length) {
+            case 0:
+                return procedure.apply0();
+            case 1:
+                return procedure.apply1(operands[0].eval(environment));
+            case 2:
+                return procedure.apply2(operands[0].eval(environment), operands[1].eval(environment));
+            case 3:
+                return procedure.apply3(
+                        operands[0].eval(environment), operands[1].eval(environment), operands[2].eval(environment));
+            default:
+                return procedure.apply(evalOperands(environment));
+        }
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        Procedure procedure = Utilities.asProcedure(evalOperator(environment));
+
+        return apply(procedure, environment);
+    }
+
+    @Override
+    public Expression evalTail(Environment environment) {
+        Procedure procedure = Utilities.asProcedure(evalOperator(environment));
+        if (procedure instanceof CompoundProcedure || procedure == Core.APPLY) {
+            return procedure.applyTail(evalOperands(environment));
+        }
+
+        return apply(procedure, environment);
+    }
+}
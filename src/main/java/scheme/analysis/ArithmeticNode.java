@@ -0,0 +1,108 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.Utilities;
+import scheme.expression.FractionalExpression;
+import scheme.expression.IntegralExpression;
+
+/**
+ * An application of `+`, `-` or `*` to two operands that specializes itself on the types of the operands
+ * seen so far: while they are both integers (or both fractions) the result is computed in place, an integer
+ * overflow being left to the primitive, and once they differ from the types seen before the node applies
+ * the operator for good. The operator is checked to still be the primitive on every evaluation.
+ */
+final class ArithmeticNode extends Node {
+    static final int ADD = 0;
+    static final int SUBTRACT = 1;
+    static final int MULTIPLY = 2;
+
+    private static final Procedure[] PRIMITIVES = {Core.ADD, Core.SUBTRACT, Core.MULTIPLY};
+
+    private static final int UNINITIALIZED = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int GENERIC = 3;
+
+    static ArithmeticNode make(Expression source, int operation, Expression operator, Expression left, Expression right) {
+        return new ArithmeticNode(source, operation, operator, left, right);
+    }
+
+
+    private final int operation;
+    private final Expression operator;
+    private final Expression left;
+    private final Expression right;
+
+    private final InlineCache cache;
+
+    private int state = UNINITIALIZED;
+
+    private ArithmeticNode(Expression source, int operation, Expression operator, Expression left, Expression right) {
+        super(source);
+        this.operation = operation;
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.cache = InlineCache.make(operator);
+    }
+
+    /**
+     * Throws an {@link ArithmeticException} on overflow, the primitive then computing a big integer.
+     */
+    private long compute(long x, long y) {
+        switch (operation) {
+            case ADD:
+                return Math.addExact(x, y);
+            case SUBTRACT:
+                return Math.subtractExact(x, y);
+            default:
+                return Math.multiplyExact(x, y);
+        }
+    }
+
+    private double compute(double x, double y) {
+        switch (operation) {
+            case ADD:
+                return x + y;
+            case SUBTRACT:
+                return x - y;
+            default:
+                return x * y;
+        }
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        Expression procedure = cache == null ? operator.eval(environment) : cache.lookup(environment);
+        Expression x = left.eval(environment);
+        Expression y = right.eval(environment);
+
+        if (procedure == PRIMITIVES[operation]) {
+            boolean integral = x instanceof IntegralExpression && y instanceof IntegralExpression;
+            boolean fractional = x instanceof FractionalExpression && y instanceof FractionalExpression;
+
+            if (state == UNINITIALIZED) {
+                state = integral ? LONG : fractional ? DOUBLE : GENERIC;
+            } else if (state == LONG && !integral || state == DOUBLE && !fractional) {
+                state = GENERIC;
+            }
+
+            if (state == LONG) {
+                try {
+                    return IntegralExpression.make(
+                            compute(((IntegralExpression) x).value(), ((IntegralExpression) y).value()));
+                } catch (ArithmeticException overflow) {
+                    return Utilities.asProcedure(procedure).apply2(x, y);
+                }
+            } else if (state == DOUBLE) {
+                return FractionalExpression.make(
+                        compute(((FractionalExpression) x).value(), ((FractionalExpression) y).value()));
+            }
+        }
+
+        return Utilities.asProcedure(procedure).apply2(x, y);
+    }
+}
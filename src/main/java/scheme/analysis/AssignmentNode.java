@@ -0,0 +1,37 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+import scheme.expression.SymbolExpression;
+
+final class AssignmentNode extends Node {
+    static AssignmentNode make(Expression source, SymbolExpression variable, int depth, Expression value) {
+        return new AssignmentNode(source, variable, depth, value);
+    }
+
+
+    private final SymbolExpression variable;
+    private final int depth;
+    private final Expression value;
+
+    private AssignmentNode(Expression source, SymbolExpression variable, int depth, Expression value) {
+        super(source);
+        this.variable = variable;
+        this.depth = depth;
+        this.value = value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        Expression evaluated = value.eval(environment);
+        if (depth == 0) {
+            environment.set(variable, evaluated);
+        } else {
+            ((FrameEnvironment) environment).beyond(depth).set(variable, evaluated);
+        }
+
+        return Core.UNIT;
+    }
+}
@@ -0,0 +1,66 @@
+package scheme.analysis;
+
+/**
+ * Counts the hits and misses of the inline caches of the call sites, and apart from them the operators read
+ * from the cells of a {@link scheme.GlobalEnvironment}. Nothing is counted unless counting is enabled,
+ * by {@link #REPORT_PROPERTY} or by {@link #setEnabled(boolean)}.
+ */
+public final class CallSites {
+    public static final String REPORT_PROPERTY = "scheme.callsites.report";
+
+    private static boolean enabled = Boolean.getBoolean(REPORT_PROPERTY);
+
+    private static long hits;
+    private static long misses;
+    private static long globals;
+
+    static void hit() {
+        if (enabled) {
+            ++hits;
+        }
+    }
+
+    static void miss() {
+        if (enabled) {
+            ++misses;
+        }
+    }
+
+    static void global() {
+        if (enabled) {
+            ++globals;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        CallSites.enabled = enabled;
+    }
+
+    public static long hits() {
+        return hits;
+    }
+
+    public static long misses() {
+        return misses;
+    }
+
+    public static long globals() {
+        return globals;
+    }
+
+    public static void reset() {
+        hits = 0;
+        misses = 0;
+        globals = 0;
+    }
+
+    public static String report() {
+        long total = hits + misses;
+        return String.format("Call sites: %d hits, %d misses (%.1f%% hit rate), %d global cell reads",
+                hits, misses, total == 0 ? 0. : 100. * hits / total, globals);
+    }
+}
@@ -0,0 +1,105 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.Utilities;
+import scheme.expression.FractionalExpression;
+import scheme.expression.IntegralExpression;
+
+/**
+ * An application of a numeric comparison to two operands, specializing itself on the types of the operands
+ * the same way as an {@link ArithmeticNode}.
+ */
+final class ComparisonNode extends Node {
+    static final int LESS_THAN = 0;
+    static final int LESS_THAN_OR_EQUAL_TO = 1;
+    static final int EQUAL_TO = 2;
+    static final int GREATER_THAN_OR_EQUAL_TO = 3;
+    static final int GREATER_THAN = 4;
+
+    private static final Procedure[] PRIMITIVES = {
+            Core.LESS_THAN,
+            Core.LESS_THAN_OR_EQUAL_TO,
+            Core.EQUAL_TO,
+            Core.GREATER_THAN_OR_EQUAL_TO,
+            Core.GREATER_THAN
+    };
+
+    private static final int UNINITIALIZED = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int GENERIC = 3;
+
+    static ComparisonNode make(Expression source, int comparison, Expression operator, Expression left, Expression right) {
+        return new ComparisonNode(source, comparison, operator, left, right);
+    }
+
+
+    private final int comparison;
+    private final Expression operator;
+    private final Expression left;
+    private final Expression right;
+
+    private final InlineCache cache;
+
+    private int state = UNINITIALIZED;
+
+    private ComparisonNode(Expression source, int comparison, Expression operator, Expression left, Expression right) {
+        super(source);
+        this.comparison = comparison;
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.cache = InlineCache.make(operator);
+    }
+
+    private Expression holds(int order) {
+        boolean result;
+        switch (comparison) {
+            case LESS_THAN:
+                result = order < 0;
+                break;
+            case LESS_THAN_OR_EQUAL_TO:
+                result = order <= 0;
+                break;
+            case EQUAL_TO:
+                result = order == 0;
+                break;
+            case GREATER_THAN_OR_EQUAL_TO:
+                result = order >= 0;
+                break;
+            default:
+                result = order > 0;
+        }
+
+        return result ? Core.TRUE : Core.FALSE;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        Expression procedure = cache == null ? operator.eval(environment) : cache.lookup(environment);
+        Expression x = left.eval(environment);
+        Expression y = right.eval(environment);
+
+        if (procedure == PRIMITIVES[comparison]) {
+            boolean integral = x instanceof IntegralExpression && y instanceof IntegralExpression;
+            boolean fractional = x instanceof FractionalExpression && y instanceof FractionalExpression;
+
+            if (state == UNINITIALIZED) {
+                state = integral ? LONG : fractional ? DOUBLE : GENERIC;
+            } else if (state == LONG && !integral || state == DOUBLE && !fractional) {
+                state = GENERIC;
+            }
+
+            if (state == LONG) {
+                return holds(Long.compare(((IntegralExpression) x).value(), ((IntegralExpression) y).value()));
+            } else if (state == DOUBLE) {
+                return holds(Double.compare(((FractionalExpression) x).value(), ((FractionalExpression) y).value()));
+            }
+        }
+
+        return Utilities.asProcedure(procedure).apply2(x, y);
+    }
+}
@@ -0,0 +1,23 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+
+final class ConstantNode extends Node {
+    static ConstantNode make(Expression source, Expression value) {
+        return new ConstantNode(source, value);
+    }
+
+
+    private final Expression value;
+
+    private ConstantNode(Expression source, Expression value) {
+        super(source);
+        this.value = value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return value;
+    }
+}
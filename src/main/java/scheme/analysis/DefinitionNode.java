@@ -0,0 +1,28 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.expression.SymbolExpression;
+
+final class DefinitionNode extends Node {
+    static DefinitionNode make(Expression source, SymbolExpression variable, Expression value) {
+        return new DefinitionNode(source, variable, value);
+    }
+
+
+    private final SymbolExpression variable;
+    private final Expression value;
+
+    private DefinitionNode(Expression source, SymbolExpression variable, Expression value) {
+        super(source);
+        this.variable = variable;
+        this.value = value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        environment.define(variable, value.eval(environment));
+        return Core.UNIT;
+    }
+}
@@ -0,0 +1,37 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Utilities;
+
+final class IfNode extends Node {
+    static IfNode make(Expression source, Expression predicate, Expression consequent, Expression alternative) {
+        return new IfNode(source, predicate, consequent, alternative);
+    }
+
+
+    private final Expression predicate;
+    private final Expression consequent;
+    private final Expression alternative;
+
+    private IfNode(Expression source, Expression predicate, Expression consequent, Expression alternative) {
+        super(source);
+        this.predicate = predicate;
+        this.consequent = consequent;
+        this.alternative = alternative;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return Utilities.isTrue(predicate.eval(environment))
+                ? consequent.eval(environment)
+                : alternative.eval(environment);
+    }
+
+    @Override
+    public Expression evalTail(Environment environment) {
+        return Utilities.isTrue(predicate.eval(environment))
+                ? consequent.evalTail(environment)
+                : alternative.evalTail(environment);
+    }
+}
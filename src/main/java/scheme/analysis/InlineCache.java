@@ -0,0 +1,86 @@
+package scheme.analysis;
+
+import scheme.DefaultEnvironment;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.GlobalEnvironment;
+
+/**
+ * Resolves the operator of a call site that is a free variable. A variable of a {@link GlobalEnvironment}
+ * is read from the cell the reference is bound to. Otherwise the cache is keyed by the environment
+ * the variable is looked up in: it remembers the values found in up to {@link #POLYMORPHIC_LIMIT}
+ * such environments, for as long as no binding counted by {@link DefaultEnvironment#version()} changes.
+ * A site that sees more environments stops caching. Only the lookups keyed by environment count as hits or misses
+ * in {@link CallSites}; the cell reads are counted apart.
+ */
+final class InlineCache {
+    private static final int POLYMORPHIC_LIMIT = 4;
+
+    /**
+     * Returns a cache for the operator, or null if the operator is not a free variable.
+     */
+    static InlineCache make(Expression operator) {
+        return operator instanceof VariableNode ? new InlineCache((VariableNode) operator) : null;
+    }
+
+
+    private final VariableNode variable;
+
+    private final Environment[] bases = new Environment[POLYMORPHIC_LIMIT];
+    private final Expression[] values = new Expression[POLYMORPHIC_LIMIT];
+    private int entries;
+    private int version;
+    private boolean megamorphic;
+
+    private InlineCache(VariableNode variable) {
+        this.variable = variable;
+    }
+
+    /**
+     * Tells whether the bindings visible from the environment can only change by a define or an assignment
+     * counted by {@link DefaultEnvironment#version()}.
+     */
+    private static boolean isTopLevel(Environment environment) {
+        while (environment instanceof DefaultEnvironment) {
+            environment = ((DefaultEnvironment) environment).enclosing();
+        }
+
+        return environment == Environment.EMPTY || environment instanceof GlobalEnvironment;
+    }
+
+    Expression lookup(Environment environment) {
+        Environment base = variable.base(environment);
+        if (base instanceof GlobalEnvironment) {
+            CallSites.global();
+            return variable.cell((GlobalEnvironment) base).value();
+        }
+
+        if (megamorphic) {
+            return base.lookup(variable.variable());
+        }
+
+        if (version == DefaultEnvironment.version()) {
+            for (int index = 0; index < entries; ++index) {
+                if (bases[index] == base) {
+                    CallSites.hit();
+                    return values[index];
+                }
+            }
+        } else {
+            entries = 0;
+            version = DefaultEnvironment.version();
+        }
+
+        CallSites.miss();
+        Expression result = base.lookup(variable.variable());
+        if (entries == POLYMORPHIC_LIMIT) {
+            megamorphic = true;
+        } else if (isTopLevel(base)) {
+            bases[entries] = base;
+            values[entries] = result;
+            ++entries;
+        }
+
+        return result;
+    }
+}
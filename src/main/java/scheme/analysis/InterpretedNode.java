@@ -0,0 +1,23 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * Falls back to the tree-walking evaluation for expressions the {@link Analyzer} does not know about.
+ */
+final class InterpretedNode extends Node {
+    static InterpretedNode make(Expression source) {
+        return new InterpretedNode(source);
+    }
+
+
+    private InterpretedNode(Expression source) {
+        super(source);
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return source().eval(environment);
+    }
+}
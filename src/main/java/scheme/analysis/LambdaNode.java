@@ -0,0 +1,39 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.expression.LambdaExpression;
+import scheme.expression.SymbolExpression;
+import scheme.procedure.CompoundProcedure;
+
+import java.util.List;
+
+final class LambdaNode extends Node {
+    static LambdaNode make(LambdaExpression source,
+                           List<SymbolExpression> parameters,
+                           SymbolExpression[] frame,
+                           Expression[] body) {
+        return new LambdaNode(source, parameters, frame, body);
+    }
+
+
+    private final List<SymbolExpression> parameters;
+    private final SymbolExpression[] frame;
+    private final Expression[] body;
+
+    private LambdaNode(LambdaExpression source,
+                       List<SymbolExpression> parameters,
+                       SymbolExpression[] frame,
+                       Expression[] body) {
+        super(source);
+        this.parameters = parameters;
+        this.frame = frame;
+        this.body = body;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return CompoundProcedure.make(
+                environment, parameters, ((LambdaExpression) source()).expressions(), frame, body);
+    }
+}
@@ -0,0 +1,43 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+import scheme.expression.SymbolExpression;
+
+final class LetNode extends Node {
+    static LetNode make(Expression source, SymbolExpression[] frame, Expression[] values, Expression body) {
+        return new LetNode(source, frame, values, body);
+    }
+
+
+    private final SymbolExpression[] frame;
+    private final Expression[] values;
+    private final Expression body;
+
+    private LetNode(Expression source, SymbolExpression[] frame, Expression[] values, Expression body) {
+        super(source);
+        this.frame = frame;
+        this.values = values;
+        this.body = body;
+    }
+
+    private Environment extend(Environment environment) {
+        Expression[] slots = new Expression[frame.length];
+        for (int index = 0; index < values.length; ++index) {
+            slots[index] = values[index].eval(environment);
+        }
+
+        return new FrameEnvironment(environment, frame, slots);
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return body.eval(extend(environment));
+    }
+
+    @Override
+    public Expression evalTail(Environment environment) {
+        return body.evalTail(extend(environment));
+    }
+}
@@ -0,0 +1,30 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+
+final class LocalAssignmentNode extends Node {
+    static LocalAssignmentNode make(Expression source, int depth, int index, Expression value) {
+        return new LocalAssignmentNode(source, depth, index, value);
+    }
+
+
+    private final int depth;
+    private final int index;
+    private final Expression value;
+
+    private LocalAssignmentNode(Expression source, int depth, int index, Expression value) {
+        super(source);
+        this.depth = depth;
+        this.index = index;
+        this.value = value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        ((FrameEnvironment) environment).set(depth, index, value.eval(environment));
+        return Core.UNIT;
+    }
+}
@@ -0,0 +1,28 @@
+package scheme.analysis;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+
+final class LocalDefinitionNode extends Node {
+    static LocalDefinitionNode make(Expression source, int index, Expression value) {
+        return new LocalDefinitionNode(source, index, value);
+    }
+
+
+    private final int index;
+    private final Expression value;
+
+    private LocalDefinitionNode(Expression source, int index, Expression value) {
+        super(source);
+        this.index = index;
+        this.value = value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        ((FrameEnvironment) environment).define(index, value.eval(environment));
+        return Core.UNIT;
+    }
+}
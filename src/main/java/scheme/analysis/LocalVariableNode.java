@@ -0,0 +1,27 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+import scheme.expression.SymbolExpression;
+
+final class LocalVariableNode extends Node {
+    static LocalVariableNode make(SymbolExpression variable, int depth, int index) {
+        return new LocalVariableNode(variable, depth, index);
+    }
+
+
+    private final int depth;
+    private final int index;
+
+    private LocalVariableNode(SymbolExpression variable, int depth, int index) {
+        super(variable);
+        this.depth = depth;
+        this.index = index;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return ((FrameEnvironment) environment).lookup(depth, index);
+    }
+}
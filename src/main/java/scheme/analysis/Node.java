@@ -0,0 +1,24 @@
+package scheme.analysis;
+
+import scheme.Expression;
+
+/**
+ * An executable node produced by the {@link Analyzer}. Evaluating a node performs no syntactic analysis:
+ * everything that depends only on the shape of the source expression has been computed up front.
+ */
+abstract class Node implements Expression {
+    private final Expression source;
+
+    Node(Expression source) {
+        this.source = source;
+    }
+
+    public Expression source() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package scheme.analysis;
+
+import scheme.Expression;
+import scheme.expression.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The analysis-time counterpart of a {@link scheme.FrameEnvironment}: names the slots of a frame.
+ * Slots are only ever appended, so the addresses handed out stay valid while the body is analyzed.
+ */
+public final class Scope {
+    public static Scope make(Scope enclosing, List<SymbolExpression> variables) {
+        return new Scope(enclosing, variables);
+    }
+
+
+    private final Scope enclosing;
+    private final List<SymbolExpression> variables;
+
+    private Scope(Scope enclosing, List<SymbolExpression> variables) {
+        this.enclosing = enclosing;
+        this.variables = new ArrayList<>(variables);
+    }
+
+    public Scope enclosing() {
+        return enclosing;
+    }
+
+    public int indexOf(SymbolExpression variable) {
+        return variables.indexOf(variable);
+    }
+
+    public int declare(SymbolExpression variable) {
+        int index = indexOf(variable);
+        if (index < 0) {
+            variables.add(variable);
+            index = variables.size() - 1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Declares the variables defined by the body before the body is analyzed,
+     * so that references preceding a definition (e.g. mutually recursive procedures) resolve to it.
+     */
+    public void declareDefinitions(List<Expression> body) {
+        for (Expression expression : body) {
+            if (expression instanceof DefinitionExpression) {
+                declare(((DefinitionExpression) expression).variable());
+            } else if (expression instanceof BeginExpression) {
+                declareDefinitions(((BeginExpression) expression).expressions());
+            } else if (expression instanceof IfExpression) {
+                IfExpression conditional = (IfExpression) expression;
+                declareDefinitions(
+                        Arrays.asList(conditional.predicate(), conditional.consequent(), conditional.alternative()));
+            } else if (expression instanceof CondExpression) {
+                for (CombinationExpression clause : ((CondExpression) expression).clauses()) {
+                    declareDefinitions(clause.expressions());
+                }
+            }
+        }
+    }
+
+    public SymbolExpression[] variables() {
+        return variables.toArray(new SymbolExpression[0]);
+    }
+
+    /**
+     * Returns the number of frames between the scope and the environment the outermost scope was analyzed in.
+     */
+    public static int depth(Scope scope) {
+        int result = 0;
+        for (; scope != null; scope = scope.enclosing) {
+            ++result;
+        }
+
+        return result;
+    }
+}
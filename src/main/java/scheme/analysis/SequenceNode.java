@@ -0,0 +1,38 @@
+package scheme.analysis;
+
+import scheme.Environment;
+import scheme.Expression;
+
+final class SequenceNode extends Node {
+    static SequenceNode make(Expression source, Expression[] expressions) {
+        return new SequenceNode(source, expressions);
+    }
+
+
+    private final Expression[] expressions;
+
+    private SequenceNode(Expression source, Expression[] expressions) {
+        super(source);
+        this.expressions = expressions;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        int last = expressions.length - 1;
+        for (int index = 0; index < last; ++index) {
+            expressions[index].eval(environment);
+        }
+
+        return expressions[last].eval(environment);
+    }
+
+    @Override
+    public Expression evalTail(Environment environment) {
+        int last = expressions.length - 1;
+        for (int index = 0; index < last; ++index) {
+            expressions[index].eval(environment);
+        }
+
+        return expressions[last].evalTail(environment);
+    }
+}
@@ -0,0 +1,62 @@
+package scheme.analysis;
+
+import scheme.Cell;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+import scheme.GlobalEnvironment;
+import scheme.expression.SymbolExpression;
+
+/**
+ * A reference to a variable that is not declared in any enclosing scope, looked up by name
+ * in the environment beyond the innermost `depth` frames. When that environment is a {@link GlobalEnvironment}
+ * the reference binds to the cell of the variable once and reads it thereafter.
+ */
+final class VariableNode extends Node {
+    static VariableNode make(SymbolExpression variable, int depth) {
+        return new VariableNode(variable, depth);
+    }
+
+
+    private final SymbolExpression variable;
+    private final int depth;
+
+    private GlobalEnvironment global;
+    private Cell cell;
+
+    private VariableNode(SymbolExpression variable, int depth) {
+        super(variable);
+        this.variable = variable;
+        this.depth = depth;
+    }
+
+    SymbolExpression variable() {
+        return variable;
+    }
+
+    /**
+     * Returns the environment the variable is looked up in.
+     */
+    Environment base(Environment environment) {
+        return depth == 0 ? environment : ((FrameEnvironment) environment).beyond(depth);
+    }
+
+    Cell cell(GlobalEnvironment base) {
+        if (base != global) {
+            cell = base.cell(variable);
+            global = base;
+        }
+
+        return cell;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        Environment base = base(environment);
+        if (base instanceof GlobalEnvironment) {
+            return cell((GlobalEnvironment) base).value();
+        }
+
+        return base.lookup(variable);
+    }
+}
@@ -0,0 +1,52 @@
+package scheme.bytecode;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.expression.CombinationExpression;
+
+/**
+ * A procedure made of compiled {@link Code}. Calls between such procedures stay inside the {@link Machine}.
+ */
+public final class BytecodeProcedure implements Procedure {
+    static BytecodeProcedure make(Code code, Environment environment) {
+        return new BytecodeProcedure(code, environment);
+    }
+
+
+    private final Code code;
+    private final Environment environment;
+
+    private BytecodeProcedure(Code code, Environment environment) {
+        this.code = code;
+        this.environment = environment;
+    }
+
+    Code code() {
+        return code;
+    }
+
+    Environment environment() {
+        return environment;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public Expression apply(CombinationExpression arguments) {
+        return apply(arguments.toArray());
+    }
+
+    @Override
+    public Expression apply(Expression[] arguments) {
+        return new Machine().apply(this, arguments);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[compiled-procedure %s]", code.name());
+    }
+}
@@ -0,0 +1,100 @@
+package scheme.bytecode;
+
+import scheme.Cell;
+import scheme.GlobalEnvironment;
+import scheme.expression.SymbolExpression;
+
+/**
+ * A compiled procedure body (or top-level expression): dense instructions, their constant pool,
+ * and the layout of the frame the body runs in.
+ */
+public final class Code {
+    static Code make(String name, int[] instructions, Object[] constants, int arity, SymbolExpression[] frame) {
+        return new Code(name, instructions, constants, arity, frame);
+    }
+
+
+    private final String name;
+
+    private final int[] instructions;
+    private final Object[] constants;
+
+    private final int arity;
+    private final SymbolExpression[] frame;
+
+    private GlobalEnvironment global;
+    private Cell[] cells;
+
+    private Code(String name, int[] instructions, Object[] constants, int arity, SymbolExpression[] frame) {
+        this.name = name;
+        this.instructions = instructions;
+        this.constants = constants;
+        this.arity = arity;
+        this.frame = frame;
+    }
+
+    int[] instructions() {
+        return instructions;
+    }
+
+    Object[] constants() {
+        return constants;
+    }
+
+    int arity() {
+        return arity;
+    }
+
+    SymbolExpression[] frame() {
+        return frame;
+    }
+
+    /**
+     * Returns the cell of the variable named by the constant at the index, bound on its first use.
+     * The bindings are dropped if the code runs against another global environment.
+     */
+    Cell cell(GlobalEnvironment environment, int index) {
+        if (environment != global) {
+            global = environment;
+            cells = new Cell[constants.length];
+        }
+
+        Cell result = cells[index];
+        if (result == null) {
+            result = environment.cell((SymbolExpression) constants[index]);
+            cells[index] = result;
+        }
+
+        return result;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String disassemble() {
+        StringBuilder result = new StringBuilder(String.format("; %s%n", name));
+        for (int pc = 0; pc < instructions.length; ) {
+            int opcode = instructions[pc];
+            result.append(String.format("%4d  %s", pc, Opcodes.name(opcode)));
+            for (int index = 1; index <= Opcodes.operands(opcode); ++index) {
+                result.append(' ').append(instructions[pc + index]);
+            }
+            result.append(String.format("%n"));
+
+            pc += 1 + Opcodes.operands(opcode);
+        }
+
+        for (int index = 0; index < constants.length; ++index) {
+            Object constant = constants[index];
+            result.append(String.format("  #%d = %s%n", index, constant instanceof Code ? ((Code) constant).name() : constant));
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,326 @@
+package scheme.bytecode;
+
+import scheme.Core;
+import scheme.Expression;
+import scheme.Utilities;
+import scheme.analysis.Scope;
+import scheme.expression.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles {@link Expression} trees into {@link Code} for the {@link Machine}.
+ * <p>
+ * Variables are resolved to lexical addresses exactly as by the {@link scheme.analysis.Analyzer};
+ * calls in a tail position are compiled into tail calls.
+ */
+public final class Compiler {
+    private static final SymbolExpression ELSE = SymbolExpression.make("else");
+
+    private static final List<SymbolExpression> COMPARISONS = Arrays.asList(
+            SymbolExpression.make("<"),
+            SymbolExpression.make("<="),
+            SymbolExpression.make("="),
+            SymbolExpression.make(">="),
+            SymbolExpression.make(">"));
+
+    public static Code compile(Expression expression) {
+        Compiler compiler = new Compiler(null);
+        compiler.compile(expression, true);
+
+        return compiler.code(expression.toString(), 0);
+    }
+
+
+    private Scope scope;
+
+    private int[] instructions = new int[16];
+    private int length;
+
+    private final List<Object> constants = new ArrayList<>();
+
+    private Compiler(Scope scope) {
+        this.scope = scope;
+    }
+
+    private Code code(String name, int arity) {
+        return Code.make(
+                name,
+                Arrays.copyOf(instructions, length),
+                constants.toArray(),
+                arity,
+                scope == null ? new SymbolExpression[0] : scope.variables());
+    }
+
+    private void emit(int... words) {
+        if (length + words.length > instructions.length) {
+            instructions = Arrays.copyOf(instructions, Math.max(instructions.length * 2, length + words.length));
+        }
+
+        System.arraycopy(words, 0, instructions, length, words.length);
+        length += words.length;
+    }
+
+    /**
+     * Emits a jump with a target to be patched, returns the position of the target operand.
+     */
+    private int emitJump(int... words) {
+        emit(words);
+        return length - 1;
+    }
+
+    private void patch(int position) {
+        instructions[position] = length;
+    }
+
+    private int constant(Object constant) {
+        int index = constants.indexOf(constant);
+        if (index < 0) {
+            constants.add(constant);
+            index = constants.size() - 1;
+        }
+
+        return index;
+    }
+
+    private void emitReturn(boolean tail) {
+        if (tail) {
+            emit(Opcodes.RETURN);
+        }
+    }
+
+
+    /**
+     * Returns the lexical address {depth, index} of the variable, or {depth, -1} for a variable
+     * that is not bound in any scope, `depth` then being the number of frames to skip.
+     */
+    private int[] resolve(SymbolExpression variable) {
+        int depth = 0;
+        for (Scope each = scope; each != null; each = each.enclosing(), ++depth) {
+            int index = each.indexOf(variable);
+            if (index >= 0) {
+                return new int[]{depth, index};
+            }
+        }
+
+        return new int[]{depth, -1};
+    }
+
+    private void compile(Expression expression, boolean tail) {
+        if (expression instanceof SymbolExpression) {
+            compileVariable((SymbolExpression) expression);
+        } else if (expression instanceof QuoteExpression) {
+            emit(Opcodes.CONSTANT, constant(((QuoteExpression) expression).expression()));
+        } else if (expression instanceof AssignmentExpression) {
+            compileAssignment((AssignmentExpression) expression);
+        } else if (expression instanceof DefinitionExpression) {
+            compileDefinition((DefinitionExpression) expression);
+        } else if (expression instanceof IfExpression) {
+            compileIf((IfExpression) expression, tail);
+            return;
+        } else if (expression instanceof LambdaExpression) {
+            compileLambda((LambdaExpression) expression);
+        } else if (expression instanceof BeginExpression) {
+            compileSequence(((BeginExpression) expression).expressions(), tail);
+            return;
+        } else if (expression instanceof CondExpression) {
+            compileCond(((CondExpression) expression).clauses(), tail);
+            return;
+        } else if (expression instanceof LetExpression) {
+            compileLet((LetExpression) expression, tail);
+            return;
+        } else if (expression instanceof UnitExpression) {
+            emit(Opcodes.CONSTANT, constant(expression));
+        } else if (expression instanceof CombinationExpression) {
+            compileApplication((CombinationExpression) expression, tail);
+            return;
+        } else if (Utilities.isNumber(expression) || Utilities.isString(expression)) {
+            emit(Opcodes.CONSTANT, constant(expression));
+        } else {
+            emit(Opcodes.EVAL, constant(expression));
+        }
+
+        emitReturn(tail);
+    }
+
+    private void compileVariable(SymbolExpression variable) {
+        int[] address = resolve(variable);
+        if (address[1] < 0) {
+            emit(Opcodes.GLOBAL, address[0], constant(variable));
+        } else if (address[0] == 0) {
+            emit(Opcodes.LOCAL0, address[1]);
+        } else {
+            emit(Opcodes.LOCAL, address[0], address[1]);
+        }
+    }
+
+    private void compileAssignment(AssignmentExpression expression) {
+        compile(expression.value(), false);
+
+        int[] address = resolve(expression.variable());
+        if (address[1] < 0) {
+            emit(Opcodes.SET_GLOBAL, address[0], constant(expression.variable()));
+        } else {
+            emit(Opcodes.SET_LOCAL, address[0], address[1]);
+        }
+        emit(Opcodes.CONSTANT, constant(Core.UNIT));
+    }
+
+    private void compileDefinition(DefinitionExpression expression) {
+        if (scope == null) {
+            compile(expression.value(), false);
+            emit(Opcodes.DEFINE_GLOBAL, constant(expression.variable()));
+        } else {
+            int index = scope.declare(expression.variable());
+            compile(expression.value(), false);
+            emit(Opcodes.DEFINE_LOCAL, index);
+        }
+        emit(Opcodes.CONSTANT, constant(Core.UNIT));
+    }
+
+    /**
+     * Compiles the predicate so that control falls through when it holds,
+     * returns the position of the jump target to patch with the alternative.
+     */
+    private int compilePredicate(Expression predicate) {
+        if (predicate instanceof CombinationExpression && !Utilities.isNull(predicate)) {
+            CombinationExpression combination = (CombinationExpression) predicate;
+            List<Expression> operands = combination.rest().expressions();
+
+            int comparison = COMPARISONS.indexOf(combination.car());
+            if (comparison >= 0 && operands.size() == 2) {
+                int[] address = resolve((SymbolExpression) combination.car());
+                if (address[1] < 0) {
+                    compile(operands.get(0), false);
+                    compile(operands.get(1), false);
+
+                    return emitJump(Opcodes.JUMP_UNLESS_COMPARE,
+                            address[0], constant(combination.car()), comparison, -1);
+                }
+            }
+        }
+
+        compile(predicate, false);
+        return emitJump(Opcodes.JUMP_IF_FALSE, -1);
+    }
+
+    private void compileIf(IfExpression expression, boolean tail) {
+        int alternative = compilePredicate(expression.predicate());
+
+        compile(expression.consequent(), tail);
+        if (tail) {
+            patch(alternative);
+            compile(expression.alternative(), true);
+            return;
+        }
+
+        int end = emitJump(Opcodes.JUMP, -1);
+        patch(alternative);
+        compile(expression.alternative(), false);
+        patch(end);
+    }
+
+    private void compileCond(List<CombinationExpression> clauses, boolean tail) {
+        List<Integer> ends = new ArrayList<>();
+        for (CombinationExpression clause : clauses) {
+            if (ELSE.equals(clause.car())) {
+                compileSequence(clause.rest().expressions(), tail);
+                for (int end : ends) {
+                    patch(end);
+                }
+                return;
+            }
+
+            int next = compilePredicate(clause.car());
+            compileSequence(clause.rest().expressions(), tail);
+            if (!tail) {
+                ends.add(emitJump(Opcodes.JUMP, -1));
+            }
+            patch(next);
+        }
+
+        emit(Opcodes.CONSTANT, constant(Core.FALSE));
+        emitReturn(tail);
+        for (int end : ends) {
+            patch(end);
+        }
+    }
+
+    private void compileSequence(List<Expression> expressions, boolean tail) {
+        if (expressions.isEmpty()) {
+            emit(Opcodes.CONSTANT, constant(Core.UNIT));
+            emitReturn(tail);
+            return;
+        }
+
+        int last = expressions.size() - 1;
+        int index = 0;
+        for (Expression expression : expressions) {
+            if (index++ < last) {
+                compile(expression, false);
+                emit(Opcodes.POP);
+            } else {
+                compile(expression, tail);
+            }
+        }
+    }
+
+    private void compileLambda(LambdaExpression expression) {
+        Scope extended = Scope.make(scope, expression.parameters());
+        extended.declareDefinitions(expression.expressions());
+
+        Compiler compiler = new Compiler(extended);
+        compiler.compileSequence(expression.expressions(), true);
+
+        emit(Opcodes.CLOSURE, constant(compiler.code(expression.toString(), expression.parameters().size())));
+    }
+
+    private void compileLet(LetExpression expression, boolean tail) {
+        List<SymbolExpression> variables = new ArrayList<>();
+        for (CombinationExpression binding : expression.bindings()) {
+            variables.add(Utilities.asSymbol(binding.car()));
+            compile(binding.rest().car(), false);
+        }
+
+        Scope enclosing = scope;
+        scope = Scope.make(enclosing, variables);
+        scope.declareDefinitions(expression.expressions());
+
+        emit(Opcodes.ENTER, -1, variables.size());
+        int frame = length - 2;
+        compileSequence(expression.expressions(), tail);
+        instructions[frame] = constant(scope.variables());
+
+        scope = enclosing;
+        if (!tail) {
+            emit(Opcodes.LEAVE);
+        }
+    }
+
+    private void compileApplication(CombinationExpression expression, boolean tail) {
+        Expression operator = expression.car();
+        List<Expression> operands = expression.rest().expressions();
+
+        if (operator instanceof SymbolExpression) {
+            int[] address = resolve((SymbolExpression) operator);
+            if (address[1] < 0) {
+                for (Expression operand : operands) {
+                    compile(operand, false);
+                }
+
+                emit(tail ? Opcodes.TAIL_CALL_GLOBAL : Opcodes.CALL_GLOBAL,
+                        address[0], constant(operator), operands.size());
+                return;
+            }
+        }
+
+        compile(operator, false);
+        for (Expression operand : operands) {
+            compile(operand, false);
+        }
+
+        emit(tail ? Opcodes.TAIL_CALL : Opcodes.CALL, operands.size());
+    }
+}
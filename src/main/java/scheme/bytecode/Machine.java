@@ -0,0 +1,365 @@
+package scheme.bytecode;
+
+import scheme.*;
+import scheme.expression.IntegralExpression;
+import scheme.expression.SymbolExpression;
+
+import java.util.Arrays;
+
+/**
+ * A stack machine executing {@link Code}. Calls from one {@link BytecodeProcedure} to another push a frame
+ * of the machine instead of a Java frame, and tail calls replace the current frame. A call of `apply` spreads
+ * its list of arguments onto the stack and is made like a call of the procedure applied.
+ */
+public final class Machine {
+    private static final Procedure[] COMPARISONS = {
+            Core.LESS_THAN,
+            Core.LESS_THAN_OR_EQUAL_TO,
+            Core.EQUAL_TO,
+            Core.GREATER_THAN_OR_EQUAL_TO,
+            Core.GREATER_THAN
+    };
+
+    public static Expression run(Code code, Environment environment) {
+        return new Machine().execute(code, environment);
+    }
+
+
+    private Expression[] stack = new Expression[64];
+    private int sp;
+
+    private Code[] codes = new Code[16];
+    private Environment[] environments = new Environment[16];
+    private int[] pcs = new int[16];
+    private int fp;
+
+    Expression apply(BytecodeProcedure procedure, Expression[] arguments) {
+        for (Expression argument : arguments) {
+            push(argument);
+        }
+
+        return execute(procedure.code(), enter(procedure, arguments.length));
+    }
+
+    private void push(Expression expression) {
+        if (sp == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+
+        stack[sp++] = expression;
+    }
+
+    private void pushFrame(Code code, Environment environment, int pc) {
+        if (fp == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+            environments = Arrays.copyOf(environments, environments.length * 2);
+            pcs = Arrays.copyOf(pcs, pcs.length * 2);
+        }
+
+        codes[fp] = code;
+        environments[fp] = environment;
+        pcs[fp] = pc;
+        ++fp;
+    }
+
+    private static Environment beyond(Environment environment, int depth) {
+        return depth == 0 ? environment : ((FrameEnvironment) environment).beyond(depth);
+    }
+
+    private static Expression global(Code code, Environment environment, int index) {
+        if (environment instanceof GlobalEnvironment) {
+            return code.cell((GlobalEnvironment) environment, index).value();
+        }
+
+        return environment.lookup((SymbolExpression) code.constants()[index]);
+    }
+
+    /**
+     * Pops `argc` arguments off the stack into a new frame of the procedure.
+     */
+    private Environment enter(BytecodeProcedure procedure, int argc) {
+        Code code = procedure.code();
+        if (code.arity() != argc) {
+            String message = code.arity() < argc ? "Too many arguments supplied: %s %s" : "Too few arguments supplied: %s %s";
+            throw new RuntimeException(String.format(message,
+                    Arrays.asList(code.frame()).subList(0, code.arity()),
+                    Arrays.asList(stack).subList(sp - argc, sp)));
+        }
+
+        Expression[] slots = new Expression[code.frame().length];
+        System.arraycopy(stack, sp - argc, slots, 0, argc);
+        sp -= argc;
+
+        return new FrameEnvironment(procedure.environment(), code.frame(), slots);
+    }
+
+    /**
+     * Pops `argc` arguments off the stack into an array of arguments.
+     */
+    private Expression[] arguments(int argc) {
+        Expression[] result = Arrays.copyOfRange(stack, sp - argc, sp);
+        Arrays.fill(stack, sp - argc, sp, null);
+        sp -= argc;
+
+        return result;
+    }
+
+    /**
+     * Applies the procedure to `argc` arguments popped off the stack
+     * through the entry point for their number.
+     */
+    private Expression apply(Procedure procedure, int argc) {
+        Expression result;
+        switch (argc) {
+            case 0:
+                return procedure.apply0();
+            case 1:
+                result = procedure.apply1(stack[sp - 1]);
+                break;
+            case 2:
+                result = procedure.apply2(stack[sp - 2], stack[sp - 1]);
+                break;
+            case 3:
+                result = procedure.apply3(stack[sp - 3], stack[sp - 2], stack[sp - 1]);
+                break;
+            default:
+                return procedure.apply(arguments(argc));
+        }
+
+        Arrays.fill(stack, sp - argc, sp, null);
+        sp -= argc;
+
+        return result;
+    }
+
+    private static boolean compare(int comparison, long x, long y) {
+        switch (comparison) {
+            case 0:
+                return x < y;
+            case 1:
+                return x <= y;
+            case 2:
+                return x == y;
+            case 3:
+                return x >= y;
+            default:
+                return x > y;
+        }
+    }
+
+    private Expression execute(Code code, Environment environment) {
+        int[] instructions = code.instructions();
+        Object[] constants = code.constants();
+        Environment env = environment;
+        int pc = 0;
+
+        while (true) {
+            int opcode = instructions[pc++];
+            switch (opcode) {
+                case Opcodes.CONSTANT:
+                    push((Expression) constants[instructions[pc++]]);
+                    break;
+
+                case Opcodes.LOCAL: {
+                    int depth = instructions[pc++];
+                    push(((FrameEnvironment) env).lookup(depth, instructions[pc++]));
+                    break;
+                }
+
+                case Opcodes.LOCAL0:
+                    push(((FrameEnvironment) env).lookup(0, instructions[pc++]));
+                    break;
+
+                case Opcodes.GLOBAL: {
+                    int depth = instructions[pc++];
+                    push(global(code, beyond(env, depth), instructions[pc++]));
+                    break;
+                }
+
+                case Opcodes.SET_LOCAL: {
+                    int depth = instructions[pc++];
+                    ((FrameEnvironment) env).set(depth, instructions[pc++], stack[--sp]);
+                    break;
+                }
+
+                case Opcodes.SET_GLOBAL: {
+                    int depth = instructions[pc++];
+                    beyond(env, depth).set((SymbolExpression) constants[instructions[pc++]], stack[--sp]);
+                    break;
+                }
+
+                case Opcodes.DEFINE_LOCAL:
+                    ((FrameEnvironment) env).define(instructions[pc++], stack[--sp]);
+                    break;
+
+                case Opcodes.DEFINE_GLOBAL:
+                    env.define((SymbolExpression) constants[instructions[pc++]], stack[--sp]);
+                    break;
+
+                case Opcodes.POP:
+                    stack[--sp] = null;
+                    break;
+
+                case Opcodes.JUMP:
+                    pc = instructions[pc];
+                    break;
+
+                case Opcodes.JUMP_IF_FALSE: {
+                    int target = instructions[pc++];
+                    if (Utilities.isFalse(stack[--sp])) {
+                        pc = target;
+                    }
+                    break;
+                }
+
+                case Opcodes.JUMP_UNLESS_COMPARE: {
+                    int depth = instructions[pc++];
+                    Expression operator = global(code, beyond(env, depth), instructions[pc++]);
+                    int comparison = instructions[pc++];
+                    int target = instructions[pc++];
+
+                    Expression right = stack[--sp];
+                    Expression left = stack[--sp];
+
+                    boolean holds;
+                    if (operator == COMPARISONS[comparison]
+                            && left instanceof IntegralExpression
+                            && right instanceof IntegralExpression) {
+                        holds = compare(comparison,
+                                ((IntegralExpression) left).value(),
+                                ((IntegralExpression) right).value());
+                    } else {
+                        holds = Utilities.isTrue(
+                                Utilities.asProcedure(operator).apply2(left, right));
+                    }
+
+                    if (!holds) {
+                        pc = target;
+                    }
+                    break;
+                }
+
+                case Opcodes.CLOSURE:
+                    push(BytecodeProcedure.make((Code) constants[instructions[pc++]], env));
+                    break;
+
+                case Opcodes.ENTER: {
+                    SymbolExpression[] frame = (SymbolExpression[]) constants[instructions[pc++]];
+                    int count = instructions[pc++];
+
+                    Expression[] slots = new Expression[frame.length];
+                    System.arraycopy(stack, sp - count, slots, 0, count);
+                    sp -= count;
+
+                    env = new FrameEnvironment(env, frame, slots);
+                    break;
+                }
+
+                case Opcodes.LEAVE:
+                    env = ((FrameEnvironment) env).enclosing();
+                    break;
+
+                case Opcodes.EVAL:
+                    push(((Expression) constants[instructions[pc++]]).eval(env));
+                    break;
+
+                case Opcodes.CALL:
+                case Opcodes.TAIL_CALL:
+                case Opcodes.CALL_GLOBAL:
+                case Opcodes.TAIL_CALL_GLOBAL: {
+                    boolean global = opcode == Opcodes.CALL_GLOBAL || opcode == Opcodes.TAIL_CALL_GLOBAL;
+                    boolean tail = opcode == Opcodes.TAIL_CALL || opcode == Opcodes.TAIL_CALL_GLOBAL;
+
+                    Procedure procedure;
+                    if (global) {
+                        int depth = instructions[pc++];
+                        procedure = Utilities.asProcedure(global(code, beyond(env, depth), instructions[pc++]));
+                    } else {
+                        procedure = null;
+                    }
+                    int argc = instructions[pc++];
+                    if (!global) {
+                        procedure = Utilities.asProcedure(stack[sp - argc - 1]);
+                    }
+
+                    if (procedure == Core.APPLY && argc == 2) {
+                        Procedure target = Utilities.asProcedure(stack[sp - 2]);
+                        Expression[] arguments = Utilities.listToArray(stack[sp - 1]);
+                        Arrays.fill(stack, global ? sp - 2 : sp - 3, sp, null);
+                        sp -= global ? 2 : 3;
+
+                        push(target);
+                        for (Expression argument : arguments) {
+                            push(argument);
+                        }
+
+                        global = false;
+                        procedure = target;
+                        argc = arguments.length;
+                    }
+
+                    if (procedure instanceof BytecodeProcedure) {
+                        BytecodeProcedure callee = (BytecodeProcedure) procedure;
+                        Environment frame = enter(callee, argc);
+                        if (!global) {
+                            stack[--sp] = null;
+                        }
+
+                        if (!tail) {
+                            pushFrame(code, env, pc);
+                        }
+
+                        code = callee.code();
+                        instructions = code.instructions();
+                        constants = code.constants();
+                        env = frame;
+                        pc = 0;
+                        break;
+                    }
+
+                    Expression result = apply(procedure, argc);
+                    if (!global) {
+                        stack[--sp] = null;
+                    }
+
+                    if (!tail) {
+                        push(result);
+                        break;
+                    }
+
+                    if (fp == 0) {
+                        return result;
+                    }
+
+                    --fp;
+                    code = codes[fp];
+                    instructions = code.instructions();
+                    constants = code.constants();
+                    env = environments[fp];
+                    pc = pcs[fp];
+                    push(result);
+                    break;
+                }
+
+                case Opcodes.RETURN: {
+                    Expression result = stack[--sp];
+                    if (fp == 0) {
+                        return result;
+                    }
+
+                    --fp;
+                    code = codes[fp];
+                    instructions = code.instructions();
+                    constants = code.constants();
+                    env = environments[fp];
+                    pc = pcs[fp];
+                    push(result);
+                    break;
+                }
+
+                default:
+                    throw new IllegalStateException(String.format("Unknown opcode: %d", opcode));
+            }
+        }
+    }
+}
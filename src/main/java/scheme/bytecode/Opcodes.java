@@ -0,0 +1,77 @@
+package scheme.bytecode;
+
+/**
+ * The instruction set of the {@link Machine}. Every instruction is an opcode followed by a fixed number
+ * of integer operands; constant operands index the constant pool of the {@link Code}.
+ */
+final class Opcodes {
+    /** `CONSTANT k`: pushes the constant `k`. */
+    static final int CONSTANT = 0;
+    /** `LOCAL depth index`: pushes the variable at the lexical address. */
+    static final int LOCAL = 1;
+    /** `LOCAL0 index`: pushes the variable of the innermost frame. */
+    static final int LOCAL0 = 2;
+    /** `GLOBAL depth k`: pushes the variable named by the constant `k`, looked up beyond `depth` frames. */
+    static final int GLOBAL = 3;
+    /** `SET_LOCAL depth index`: pops a value into the variable at the lexical address. */
+    static final int SET_LOCAL = 4;
+    /** `SET_GLOBAL depth k`: pops a value into the variable named by the constant `k`. */
+    static final int SET_GLOBAL = 5;
+    /** `DEFINE_LOCAL index`: pops a value into the slot of the innermost frame. */
+    static final int DEFINE_LOCAL = 6;
+    /** `DEFINE_GLOBAL k`: pops a value and defines the variable named by the constant `k`. */
+    static final int DEFINE_GLOBAL = 7;
+    /** `POP`: discards the top of the stack. */
+    static final int POP = 8;
+    /** `JUMP target`. */
+    static final int JUMP = 9;
+    /** `JUMP_IF_FALSE target`: pops a value and jumps if it is false. */
+    static final int JUMP_IF_FALSE = 10;
+    /** `CLOSURE k`: pushes a procedure made of the code constant `k` closed over the current environment. */
+    static final int CLOSURE = 11;
+    /** `CALL argc`: pops the arguments and the procedure below them, pushes the result. */
+    static final int CALL = 12;
+    /** `TAIL_CALL argc`: as `CALL`, then returns the result, reusing the current frame. */
+    static final int TAIL_CALL = 13;
+    /** `RETURN`: pops the result and returns it to the caller. */
+    static final int RETURN = 14;
+    /** `ENTER k n`: pops `n` values into a new frame laid out as the constant `k`. */
+    static final int ENTER = 15;
+    /** `LEAVE`: drops the innermost frame. */
+    static final int LEAVE = 16;
+    /** `EVAL k`: evaluates the expression constant `k` by walking its tree. */
+    static final int EVAL = 17;
+
+    // Superinstructions
+
+    /** `CALL_GLOBAL depth k argc`: `GLOBAL depth k` below the arguments, then `CALL argc`. */
+    static final int CALL_GLOBAL = 18;
+    /** `TAIL_CALL_GLOBAL depth k argc`: `GLOBAL depth k` below the arguments, then `TAIL_CALL argc`. */
+    static final int TAIL_CALL_GLOBAL = 19;
+    /**
+     * `JUMP_UNLESS_COMPARE depth k comparison target`: pops two operands and compares them with the global
+     * named by the constant `k`, jumping if the comparison fails. Integral operands are compared in place
+     * as long as the global is still bound to the primitive `comparison`.
+     */
+    static final int JUMP_UNLESS_COMPARE = 20;
+
+    private static final String[] NAMES = {
+            "CONSTANT", "LOCAL", "LOCAL0", "GLOBAL", "SET_LOCAL", "SET_GLOBAL", "DEFINE_LOCAL", "DEFINE_GLOBAL",
+            "POP", "JUMP", "JUMP_IF_FALSE", "CLOSURE", "CALL", "TAIL_CALL", "RETURN", "ENTER", "LEAVE", "EVAL",
+            "CALL_GLOBAL", "TAIL_CALL_GLOBAL", "JUMP_UNLESS_COMPARE"
+    };
+
+    private static final int[] OPERANDS = {
+            1, 2, 1, 2, 2, 2, 1, 1,
+            0, 1, 1, 1, 1, 1, 0, 2, 0, 1,
+            3, 3, 4
+    };
+
+    static String name(int opcode) {
+        return NAMES[opcode];
+    }
+
+    static int operands(int opcode) {
+        return OPERANDS[opcode];
+    }
+}
@@ -5,7 +5,7 @@ import scheme.Expression;
 import scheme.Strings;
 import scheme.Utilities;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 public class BeginExpression implements Expression {
@@ -20,11 +20,28 @@ public class BeginExpression implements Expression {
         this.expressions = expressions;
     }
 
+    public List<Expression> expressions() {
+        return expressions;
+    }
+
     @Override
     public Expression eval(Environment environment) {
         return Utilities.mapEval(expressions, environment).get(expressions.size() - 1);
     }
 
+    @Override
+    public Expression evalTail(Environment environment) {
+        Iterator<Expression> it = expressions.iterator();
+
+        Expression expression = it.next();
+        while (it.hasNext()) {
+            expression.eval(environment);
+            expression = it.next();
+        }
+
+        return expression.evalTail(environment);
+    }
+
     @Override
     public String toString() {
         return String.format("(begin %s)", Strings.join(" ", expressions));
@@ -0,0 +1,52 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+import java.math.BigInteger;
+
+/**
+ * An exact integer beyond the range of a `long`. Integers within that range are always
+ * {@link IntegralExpression}s, see {@link scheme.Numbers}.
+ */
+public class BigIntegralExpression implements Expression {
+    public static BigIntegralExpression make(BigInteger value) {
+        return new BigIntegralExpression(value);
+    }
+
+
+    private final BigInteger value;
+
+    private BigIntegralExpression(BigInteger value) {
+        this.value = value;
+    }
+
+    public BigInteger value() {
+        return value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+
+        if (other == null || getClass() != other.getClass()) return false;
+
+        BigIntegralExpression that = (BigIntegralExpression) other;
+        return value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * A character. The ASCII characters are preallocated.
+ */
+public class CharacterExpression implements Expression {
+    private static final CharacterExpression[] CACHE = new CharacterExpression[128];
+
+    static {
+        for (int index = 0; index < CACHE.length; ++index) {
+            CACHE[index] = new CharacterExpression((char) index);
+        }
+    }
+
+    public static CharacterExpression make(char value) {
+        return value < CACHE.length ? CACHE[value] : new CharacterExpression(value);
+    }
+
+
+    private final char value;
+
+    private CharacterExpression(char value) {
+        this.value = value;
+    }
+
+    public char value() {
+        return value;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+
+        if (other == null || getClass() != other.getClass()) return false;
+
+        CharacterExpression that = (CharacterExpression) other;
+        return value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Character.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "#\\" + value;
+    }
+}
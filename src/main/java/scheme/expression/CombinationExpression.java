@@ -1,6 +1,7 @@
 package scheme.expression;
 
 import scheme.*;
+import scheme.procedure.CompoundProcedure;
 
 import java.util.*;
 
@@ -33,6 +34,13 @@ public class CombinationExpression extends Pair {
         return makeIteratively(expressions);
     }
 
+    /**
+     * Returns a list of the expression followed by the elements of the list, sharing the list as its tail.
+     */
+    public static CombinationExpression cons(Expression car, CombinationExpression cdr) {
+        return new CombinationExpression(car, cdr);
+    }
+
 
     protected CombinationExpression(Expression car, CombinationExpression cdr) {
         super(car, cdr);
@@ -43,38 +51,98 @@ public class CombinationExpression extends Pair {
         return super.car();
     }
 
-    @Override
-    public CombinationExpression cdr() {
-        return (CombinationExpression) super.cdr();
+    /**
+     * Returns the cdr as a list. Code is made of lists throughout, but the cdr of a list of data may have been
+     * set to anything by `set-cdr!`.
+     */
+    public CombinationExpression rest() {
+        return Utilities.asCombination(cdr());
+    }
+
+    /**
+     * Returns the next cell of a list, whose cells may be pairs as well as combinations.
+     */
+    private static Pair next(Expression rest) {
+        if (rest instanceof Pair) {
+            return (Pair) rest;
+        }
+
+        throw new RuntimeException("Malformed list");
+    }
+
+    public int length() {
+        int result = 0;
+        for (Expression rest = this; !Utilities.isNull(rest); rest = next(rest).cdr()) {
+            ++result;
+        }
+
+        return result;
     }
 
     public List<Expression> expressions() {
-        List<Expression> result = new LinkedList<>();
-        result.add(car());
+        List<Expression> result = new ArrayList<>();
+        for (Expression rest = this; !Utilities.isNull(rest); rest = next(rest).cdr()) {
+            result.add(next(rest).car());
+        }
+
+        return result;
+    }
+
+    public Expression[] toArray() {
+        Expression[] result = new Expression[length()];
+        int index = 0;
+        for (Expression rest = this; !Utilities.isNull(rest); rest = next(rest).cdr()) {
+            result[index++] = next(rest).car();
+        }
+
+        return result;
+    }
 
-        CombinationExpression rest = cdr();
-        while (!Utilities.isNull(rest)) {
-            result.add(rest.car());
-            rest = rest.cdr();
+    private Expression[] evalOperands(Environment environment) {
+        CombinationExpression operands = rest();
+
+        Expression[] result = new Expression[operands.length()];
+        int index = 0;
+        for (CombinationExpression rest = operands; !Utilities.isNull(rest); rest = rest.rest()) {
+            result[index++] = rest.car().eval(environment);
         }
 
         return result;
     }
 
+    /**
+     * Applies the operator through the entry point for the number of operands.
+     */
+    private Expression apply(Procedure operator, Environment environment) {
+        CombinationExpression operands = rest();
+        switch (operands.length()) {
+            case 0:
+                return operator.apply0();
+            case 1:
+                return operator.apply1(operands.car().eval(environment));
+            case 2:
+                return operator.apply2(
+                        operands.car().eval(environment),
+                        operands.rest().car().eval(environment));
+            default:
+                return operator.apply(evalOperands(environment));
+        }
+    }
+
     @Override
     public Expression eval(Environment environment) {
         Procedure operator = Utilities.asProcedure(car().eval(environment));
 
-        List<Expression> evaluated = new ArrayList<>();
-        for (Expression expression : cdr().expressions()) {
-            evaluated.add(expression.eval(environment));
-        }
-
-        return operator.apply(make(evaluated));
+        return apply(operator, environment);
     }
 
     @Override
-    public String toString() {
-        return String.format("(%s)", Strings.join(" ", expressions()));
+    public Expression evalTail(Environment environment) {
+        Procedure operator = Utilities.asProcedure(car().eval(environment));
+        if (operator instanceof CompoundProcedure || operator == Core.APPLY) {
+            return operator.applyTail(evalOperands(environment));
+        }
+
+        return apply(operator, environment);
     }
 }
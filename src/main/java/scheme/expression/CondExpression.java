@@ -35,13 +35,13 @@ public class CondExpression implements Expression {
 
         CombinationExpression first = clauses.get(0);
         if (isElseClause(first)) {
-            return BeginExpression.make(first.cdr().expressions());
+            return BeginExpression.make(first.rest().expressions());
         }
 
         List<CombinationExpression> rest = clauses.subList(1, clauses.size());
         return IfExpression.make(
                 first.car(),
-                BeginExpression.make(first.cdr().expressions()),
+                BeginExpression.make(first.rest().expressions()),
                 expand(rest));
     }
 
@@ -54,6 +54,11 @@ public class CondExpression implements Expression {
         return toIfExpression().eval(environment);
     }
 
+    @Override
+    public Expression evalTail(Environment environment) {
+        return toIfExpression().evalTail(environment);
+    }
+
     @Override
     public String toString() {
         return String.format("(cond %s)", Strings.join(" ", clauses));
@@ -0,0 +1,47 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * A vector of inexact numbers held unboxed in a `double[]` (the `f64vector` of SRFI 4).
+ */
+public class F64VectorExpression implements Expression {
+    public static F64VectorExpression make(double[] elements) {
+        return new F64VectorExpression(elements);
+    }
+
+
+    private final double[] elements;
+
+    private F64VectorExpression(double[] elements) {
+        this.elements = elements;
+    }
+
+    public int length() {
+        return elements.length;
+    }
+
+    public double get(int index) {
+        return elements[index];
+    }
+
+    public void set(int index, double element) {
+        elements[index] = element;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("#f64(");
+        for (int index = 0; index < elements.length; ++index) {
+            result.append(index == 0 ? "" : " ").append(elements[index]);
+        }
+
+        return result.append(")").toString();
+    }
+}
@@ -3,21 +3,22 @@ package scheme.expression;
 import scheme.Environment;
 import scheme.Expression;
 
-import java.util.Objects;
-
+/**
+ * An inexact number held in a `double`.
+ */
 public class FractionalExpression implements Expression {
-    public static FractionalExpression make(Double value) {
+    public static FractionalExpression make(double value) {
         return new FractionalExpression(value);
     }
 
 
-    private final Double value;
+    private final double value;
 
-    private FractionalExpression(Double value) {
+    private FractionalExpression(double value) {
         this.value = value;
     }
 
-    public Double value() {
+    public double value() {
         return value;
     }
 
@@ -33,16 +34,16 @@ public class FractionalExpression implements Expression {
         if (other == null || getClass() != other.getClass()) return false;
 
         FractionalExpression that = (FractionalExpression) other;
-        return Objects.equals(value, that.value);
+        return Double.doubleToLongBits(value) == Double.doubleToLongBits(that.value);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Double.hashCode(value);
     }
 
     @Override
     public String toString() {
-        return String.format("%s", value);
+        return Double.toString(value);
     }
 }
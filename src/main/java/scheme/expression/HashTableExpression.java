@@ -0,0 +1,201 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Equivalence;
+import scheme.Expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hash table with open addressing: keys, values and key hashes are held in parallel arrays probed linearly,
+ * a deleted entry leaving a marker behind so that probing continues past it. Keys are compared with
+ * an {@link Equivalence}, except that symbols, which are interned, and integers held in a `long`
+ * are hashed and compared directly, as the three equivalences agree on them.
+ */
+public class HashTableExpression implements Expression {
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Marks the slot of a deleted entry.
+     */
+    private static final Expression DELETED = (Environment environment) -> null;
+
+    public static HashTableExpression make(Equivalence equivalence) {
+        return new HashTableExpression(equivalence);
+    }
+
+
+    private final Equivalence equivalence;
+
+    private Expression[] keys = new Expression[INITIAL_CAPACITY];
+    private Expression[] values = new Expression[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    private int size;
+    private int used;
+
+    private HashTableExpression(Equivalence equivalence) {
+        this.equivalence = equivalence;
+    }
+
+    public Equivalence equivalence() {
+        return equivalence;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int hash(Expression key) {
+        int hash = key instanceof SymbolExpression || key instanceof IntegralExpression
+                ? key.hashCode()
+                : equivalence.hash(key);
+
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(Expression candidate, Expression key) {
+        if (candidate == key) {
+            return true;
+        }
+
+        if (key instanceof SymbolExpression || candidate == DELETED) {
+            return false;
+        }
+
+        if (key instanceof IntegralExpression) {
+            return key.equals(candidate);
+        }
+
+        return equivalence.test(candidate, key);
+    }
+
+    private int find(Expression key, int hash) {
+        int mask = keys.length - 1;
+        for (int index = hash & mask; keys[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && matches(keys[index], key)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the value associated with the key, or `null` if there is none.
+     */
+    public Expression get(Expression key) {
+        int index = find(key, hash(key));
+        return index < 0 ? null : values[index];
+    }
+
+    public void put(Expression key, Expression value) {
+        int hash = hash(key);
+        int index = find(key, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        if (4 * (used + 1) > 3 * keys.length) {
+            resize();
+        }
+
+        int mask = keys.length - 1;
+        index = hash & mask;
+        while (keys[index] != null && keys[index] != DELETED) {
+            index = (index + 1) & mask;
+        }
+
+        if (keys[index] == null) {
+            ++used;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        ++size;
+    }
+
+    public boolean remove(Expression key) {
+        int index = find(key, hash(key));
+        if (index < 0) {
+            return false;
+        }
+
+        keys[index] = DELETED;
+        values[index] = null;
+        --size;
+        return true;
+    }
+
+    /**
+     * Rehashes the entries into arrays at least twice as large as the entries, dropping the deleted ones.
+     */
+    private void resize() {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < 4 * (size + 1)) {
+            capacity *= 2;
+        }
+
+        Expression[] oldKeys = keys;
+        Expression[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        keys = new Expression[capacity];
+        values = new Expression[capacity];
+        hashes = new int[capacity];
+
+        int mask = capacity - 1;
+        for (int old = 0; old < oldKeys.length; ++old) {
+            if (oldKeys[old] == null || oldKeys[old] == DELETED) {
+                continue;
+            }
+
+            int index = oldHashes[old] & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = oldKeys[old];
+            values[index] = oldValues[old];
+            hashes[index] = oldHashes[old];
+        }
+
+        used = size;
+    }
+
+    public List<Expression> keys() {
+        List<Expression> result = new ArrayList<>(size);
+        for (Expression key : keys) {
+            if (key != null && key != DELETED) {
+                result.add(key);
+            }
+        }
+
+        return result;
+    }
+
+    public List<Expression> values() {
+        List<Expression> result = new ArrayList<>(size);
+        for (int index = 0; index < keys.length; ++index) {
+            if (keys[index] != null && keys[index] != DELETED) {
+                result.add(values[index]);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[hash-table %s]", size);
+    }
+}
@@ -39,6 +39,13 @@ public class IfExpression implements Expression {
                 : alternative.eval(environment);
     }
 
+    @Override
+    public Expression evalTail(Environment environment) {
+        return Utilities.isTrue(predicate.eval(environment))
+                ? consequent.evalTail(environment)
+                : alternative.evalTail(environment);
+    }
+
     @Override
     public String toString() {
         return String.format("(if %s %s %s)", predicate, consequent, alternative);
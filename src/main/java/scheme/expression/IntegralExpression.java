@@ -3,21 +3,38 @@ package scheme.expression;
 import scheme.Environment;
 import scheme.Expression;
 
-import java.util.Objects;
-
+/**
+ * An exact integer held in a `long`. The integers from {@link #CACHE_LOW} to {@link #CACHE_HIGH},
+ * which loop counters and indices mostly stay within, are preallocated.
+ */
 public class IntegralExpression implements Expression {
-    public static IntegralExpression make(Long value) {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+
+    private static final IntegralExpression[] CACHE = new IntegralExpression[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int index = 0; index < CACHE.length; ++index) {
+            CACHE[index] = new IntegralExpression(CACHE_LOW + index);
+        }
+    }
+
+    public static IntegralExpression make(long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+
         return new IntegralExpression(value);
     }
 
 
-    private final Long value;
+    private final long value;
 
-    private IntegralExpression(Long value) {
+    private IntegralExpression(long value) {
         this.value = value;
     }
 
-    public Long value() {
+    public long value() {
         return value;
     }
 
@@ -33,16 +50,16 @@ public class IntegralExpression implements Expression {
         if (other == null || getClass() != other.getClass()) return false;
 
         IntegralExpression that = (IntegralExpression) other;
-        return Objects.equals(value, that.value);
+        return value == that.value;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Long.hashCode(value);
     }
 
     @Override
     public String toString() {
-        return String.format("%s", value);
+        return Long.toString(value);
     }
 }
@@ -28,12 +28,20 @@ public class LetExpression implements Expression {
         this.expressions = expressions;
     }
 
+    public List<CombinationExpression> bindings() {
+        return bindings;
+    }
+
+    public List<Expression> expressions() {
+        return expressions;
+    }
+
     private Expression toCombinationExpression() {
         List<SymbolExpression> bindingVariables = new ArrayList<>(bindings.size());
         List<Expression> bindingExpressions = new ArrayList<>(bindings.size());
         for (CombinationExpression expression : bindings) {
             bindingVariables.add(Utilities.asSymbol(expression.car()));
-            bindingExpressions.add(expression.cdr().car());
+            bindingExpressions.add(expression.rest().car());
         }
 
         return CombinationExpression.make(cons(LambdaExpression.make(bindingVariables, expressions), bindingExpressions));
@@ -44,6 +52,11 @@ public class LetExpression implements Expression {
         return toCombinationExpression().eval(environment);
     }
 
+    @Override
+    public Expression evalTail(Environment environment) {
+        return toCombinationExpression().evalTail(environment);
+    }
+
     @Override
     public String toString() {
         return String.format("(let (%s) %s)",
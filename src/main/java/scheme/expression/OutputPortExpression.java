@@ -0,0 +1,38 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * An output port accumulating what is written to it in a string builder, so that a string built from
+ * many pieces is copied once rather than on every append.
+ */
+public class OutputPortExpression implements Expression {
+    public static OutputPortExpression make() {
+        return new OutputPortExpression();
+    }
+
+
+    private final StringBuilder builder = new StringBuilder();
+
+    private OutputPortExpression() {
+    }
+
+    public StringBuilder builder() {
+        return builder;
+    }
+
+    public StringExpression contents() {
+        return StringExpression.make(builder.toString());
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "#[string-output-port]";
+    }
+}
@@ -0,0 +1,57 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+import java.math.BigInteger;
+
+/**
+ * An exact ratio of integers in lowest terms, with a denominator greater than one, see {@link scheme.Numbers}.
+ */
+public class RationalExpression implements Expression {
+    public static RationalExpression make(BigInteger numerator, BigInteger denominator) {
+        return new RationalExpression(numerator, denominator);
+    }
+
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+
+    private RationalExpression(BigInteger numerator, BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public BigInteger numerator() {
+        return numerator;
+    }
+
+    public BigInteger denominator() {
+        return denominator;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+
+        if (other == null || getClass() != other.getClass()) return false;
+
+        RationalExpression that = (RationalExpression) other;
+        return numerator.equals(that.numerator) && denominator.equals(that.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * numerator.hashCode() + denominator.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s", numerator, denominator);
+    }
+}
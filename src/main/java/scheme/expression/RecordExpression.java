@@ -0,0 +1,41 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * An instance of a record type: the fields are held in a slot array laid out by the {@link RecordTypeExpression}.
+ */
+public class RecordExpression implements Expression {
+    static RecordExpression make(RecordTypeExpression type, Expression[] slots) {
+        return new RecordExpression(type, slots);
+    }
+
+
+    final RecordTypeExpression type;
+    final Expression[] slots;
+
+    private RecordExpression(RecordTypeExpression type, Expression[] slots) {
+        this.type = type;
+        this.slots = slots;
+    }
+
+    public RecordTypeExpression type() {
+        return type;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("#[").append(type.name());
+        for (Expression slot : slots) {
+            result.append(" ").append(slot);
+        }
+
+        return result.append("]").toString();
+    }
+}
@@ -0,0 +1,118 @@
+package scheme.expression;
+
+import scheme.Core;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.procedure.PrimitiveProcedure;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A record type defined by `define-record-type`. Its instances hold one slot per field, and the procedures
+ * it makes check the type of an instance by reference and access a slot by its index.
+ */
+public class RecordTypeExpression implements Expression {
+    public static RecordTypeExpression make(SymbolExpression name, List<SymbolExpression> fields) {
+        return new RecordTypeExpression(name, fields.toArray(new SymbolExpression[0]));
+    }
+
+
+    private final SymbolExpression name;
+    private final SymbolExpression[] fields;
+
+    private RecordTypeExpression(SymbolExpression name, SymbolExpression[] fields) {
+        this.name = name;
+        this.fields = fields;
+    }
+
+    public SymbolExpression name() {
+        return name;
+    }
+
+    private int index(SymbolExpression field) {
+        for (int index = 0; index < fields.length; ++index) {
+            if (fields[index] == field) {
+                return index;
+            }
+        }
+
+        throw new RuntimeException(String.format("Unknown field of %s: %s", name, field));
+    }
+
+    private RecordExpression cast(Expression expression) {
+        if (expression instanceof RecordExpression && ((RecordExpression) expression).type == this) {
+            return (RecordExpression) expression;
+        }
+
+        throw new RuntimeException(String.format("Not a %s: %s", name, expression));
+    }
+
+    private static int[] indexRange(int length) {
+        int[] result = new int[length];
+        for (int index = 0; index < length; ++index) {
+            result[index] = index;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a procedure making an instance from the values of the given fields, the others being false.
+     */
+    public Procedure constructor(List<SymbolExpression> arguments) {
+        int[] indices = new int[arguments.size()];
+        for (int index = 0; index < indices.length; ++index) {
+            indices[index] = index(arguments.get(index));
+        }
+
+        boolean ordered = Arrays.equals(indices, indexRange(fields.length));
+
+        return PrimitiveProcedure.makeN((Expression[] values) -> {
+            if (values.length != indices.length) {
+                throw new RuntimeException(String.format("Invalid number of arguments to the constructor of %s", name));
+            }
+
+            if (ordered) {
+                return RecordExpression.make(this, values);
+            }
+
+            Expression[] slots = new Expression[fields.length];
+            Arrays.fill(slots, Core.FALSE);
+            for (int index = 0; index < indices.length; ++index) {
+                slots[indices[index]] = values[index];
+            }
+
+            return RecordExpression.make(this, slots);
+        });
+    }
+
+    public Procedure predicate() {
+        return PrimitiveProcedure.make1((Expression x) ->
+                x instanceof RecordExpression && ((RecordExpression) x).type == this ? Core.TRUE : Core.FALSE);
+    }
+
+    public Procedure accessor(SymbolExpression field) {
+        int index = index(field);
+        return PrimitiveProcedure.make1((Expression record) -> cast(record).slots[index]);
+    }
+
+    public Procedure modifier(SymbolExpression field) {
+        int index = index(field);
+        return PrimitiveProcedure.make2((Expression record, Expression value) -> {
+            cast(record).slots[index] = value;
+            return Core.UNIT;
+        });
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[record-type %s]", name);
+    }
+}
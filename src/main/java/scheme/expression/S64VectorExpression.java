@@ -0,0 +1,47 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+
+/**
+ * A vector of integers held unboxed in a `long[]` (the `s64vector` of SRFI 4).
+ */
+public class S64VectorExpression implements Expression {
+    public static S64VectorExpression make(long[] elements) {
+        return new S64VectorExpression(elements);
+    }
+
+
+    private final long[] elements;
+
+    private S64VectorExpression(long[] elements) {
+        this.elements = elements;
+    }
+
+    public int length() {
+        return elements.length;
+    }
+
+    public long get(int index) {
+        return elements[index];
+    }
+
+    public void set(int index, long element) {
+        elements[index] = element;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("#s64(");
+        for (int index = 0; index < elements.length; ++index) {
+            result.append(index == 0 ? "" : " ").append(elements[index]);
+        }
+
+        return result.append(")").toString();
+    }
+}
@@ -3,20 +3,57 @@ package scheme.expression;
 import scheme.Environment;
 import scheme.Expression;
 
+/**
+ * An immutable string: a range of a backing `String`. A substring shares the backing of the string
+ * it is taken from, so taking it costs no copying (at the price of keeping the whole backing reachable).
+ */
 public class StringExpression implements Expression {
     public static StringExpression make(String value) {
-        return new StringExpression(value);
+        return new StringExpression(value, 0, value.length());
     }
 
 
-    private final String value;
+    private final String backing;
+    private final int offset;
+    private final int length;
 
-    private StringExpression(String value) {
-        this.value = value;
+    private StringExpression(String backing, int offset, int length) {
+        this.backing = backing;
+        this.offset = offset;
+        this.length = length;
     }
 
     public String value() {
-        return value;
+        return offset == 0 && length == backing.length() ? backing : backing.substring(offset, offset + length);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int index) {
+        return backing.charAt(offset + index);
+    }
+
+    public StringExpression substring(int start, int end) {
+        return new StringExpression(backing, offset + start, end - start);
+    }
+
+    public void appendTo(StringBuilder builder) {
+        builder.append(backing, offset, offset + length);
+    }
+
+    public boolean contentEquals(StringExpression other) {
+        return length == other.length && backing.regionMatches(offset, other.backing, other.offset, length);
+    }
+
+    public int contentHashCode() {
+        int result = 0;
+        for (int index = offset; index < offset + length; ++index) {
+            result = 31 * result + backing.charAt(index);
+        }
+
+        return result;
     }
 
     public Expression eval(Environment environment) {
@@ -25,6 +62,6 @@ public class StringExpression implements Expression {
 
     @Override
     public String toString() {
-        return String.format("\"%s\"", value);
+        return String.format("\"%s\"", value());
     }
 }
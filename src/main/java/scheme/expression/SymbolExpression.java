@@ -3,18 +3,73 @@ package scheme.expression;
 import scheme.Environment;
 import scheme.Expression;
 
-import java.util.Objects;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A symbol. Symbols are interned: each name maps to exactly one symbol for as long as the symbol is reachable,
+ * so symbols are compared by reference and hash by the hash of their name computed once.
+ */
 public class SymbolExpression implements Expression {
+    private static final class Entry extends WeakReference<SymbolExpression> {
+        private final String name;
+
+        private Entry(SymbolExpression symbol, ReferenceQueue<SymbolExpression> queue) {
+            super(symbol, queue);
+            this.name = symbol.name;
+        }
+    }
+
+    private static final ConcurrentMap<String, Entry> SYMBOLS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<SymbolExpression> COLLECTED = new ReferenceQueue<>();
+
+    /**
+     * Drops the entries of the symbols that have been collected.
+     */
+    private static void expunge() {
+        Entry entry;
+        while ((entry = (Entry) COLLECTED.poll()) != null) {
+            SYMBOLS.remove(entry.name, entry);
+        }
+    }
+
     public static SymbolExpression make(String name) {
-        return new SymbolExpression(name);
+        Entry entry = SYMBOLS.get(name);
+        SymbolExpression result = entry == null ? null : entry.get();
+        if (result != null) {
+            return result;
+        }
+
+        expunge();
+
+        SymbolExpression symbol = new SymbolExpression(name);
+        Entry created = new Entry(symbol, COLLECTED);
+        while (true) {
+            Entry existing = SYMBOLS.putIfAbsent(name, created);
+            if (existing == null) {
+                return symbol;
+            }
+
+            result = existing.get();
+            if (result != null) {
+                return result;
+            }
+
+            if (SYMBOLS.replace(name, existing, created)) {
+                return symbol;
+            }
+        }
     }
 
 
     private final String name;
+    private final int hash;
 
     private SymbolExpression(String name) {
         this.name = name;
+        this.hash = name.hashCode();
     }
 
     public String name() {
@@ -28,21 +83,12 @@ public class SymbolExpression implements Expression {
 
     @Override
     public boolean equals(Object other) {
-        if (this == other) {
-            return true;
-        }
-
-        if (other == null || getClass() != other.getClass()) {
-            return false;
-        }
-
-        SymbolExpression that = (SymbolExpression) other;
-        return Objects.equals(name, that.name);
+        return this == other;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 
     @Override
@@ -0,0 +1,49 @@
+package scheme.expression;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Strings;
+
+import java.util.Arrays;
+
+/**
+ * A vector: a fixed number of elements held in an array.
+ */
+public class VectorExpression implements Expression {
+    public static VectorExpression make(Expression[] elements) {
+        return new VectorExpression(elements);
+    }
+
+
+    private final Expression[] elements;
+
+    private VectorExpression(Expression[] elements) {
+        this.elements = elements;
+    }
+
+    public int length() {
+        return elements.length;
+    }
+
+    public Expression get(int index) {
+        return elements[index];
+    }
+
+    public void set(int index, Expression element) {
+        elements[index] = element;
+    }
+
+    public Expression[] elements() {
+        return elements;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#(%s)", Strings.join(" ", Arrays.asList(elements)));
+    }
+}
@@ -0,0 +1,75 @@
+package scheme.jvm;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable byte array written in the big-endian order of the class file format.
+ */
+final class ByteVector {
+    private byte[] bytes = new byte[64];
+    private int length;
+
+    int length() {
+        return length;
+    }
+
+    private void ensure(int count) {
+        if (length + count > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+        }
+    }
+
+    ByteVector u1(int value) {
+        ensure(1);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    ByteVector u2(int value) {
+        ensure(2);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    ByteVector u4(int value) {
+        ensure(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    ByteVector bytes(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, length, value.length);
+        length += value.length;
+        return this;
+    }
+
+    ByteVector bytes(ByteVector value) {
+        ensure(value.length);
+        System.arraycopy(value.bytes, 0, bytes, length, value.length);
+        length += value.length;
+        return this;
+    }
+
+    /**
+     * Writes the string in the modified UTF-8 encoding, which coincides with UTF-8 for the names generated here.
+     */
+    ByteVector utf8(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        return u2(encoded.length).bytes(encoded);
+    }
+
+    void putU2(int position, int value) {
+        bytes[position] = (byte) (value >>> 8);
+        bytes[position + 1] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+}
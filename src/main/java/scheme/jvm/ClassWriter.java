@@ -0,0 +1,143 @@
+package scheme.jvm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a class file: just enough of the format for the classes generated by the {@link JvmCompiler}.
+ * <p>
+ * The classes are of version 49 (Java 5), which the JVM verifies by type inference,
+ * so no `StackMapTable` frames have to be computed.
+ */
+final class ClassWriter {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int VERSION = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+
+    private final String name;
+    private final String superName;
+
+    private final ByteVector pool = new ByteVector();
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int count = 1;
+
+    private final ByteVector fields = new ByteVector();
+    private int fieldCount;
+
+    private final List<MethodWriter> methods = new ArrayList<>();
+
+    ClassWriter(String name, String superName) {
+        this.name = name;
+        this.superName = superName;
+    }
+
+    String name() {
+        return name;
+    }
+
+    private int entry(String key, ByteVector entry) {
+        Integer index = entries.get(key);
+        if (index == null) {
+            index = count++;
+            entries.put(key, index);
+            pool.bytes(entry);
+        }
+
+        return index;
+    }
+
+    int utf8(String value) {
+        return entry("U" + value, new ByteVector().u1(CONSTANT_UTF8).utf8(value));
+    }
+
+    int integer(int value) {
+        return entry("I" + value, new ByteVector().u1(CONSTANT_INTEGER).u4(value));
+    }
+
+    int classRef(String internalName) {
+        int utf8 = utf8(internalName);
+        return entry("C" + internalName, new ByteVector().u1(CONSTANT_CLASS).u2(utf8));
+    }
+
+    int string(String value) {
+        int utf8 = utf8(value);
+        return entry("S" + value, new ByteVector().u1(CONSTANT_STRING).u2(utf8));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return entry("N" + name + ':' + descriptor,
+                new ByteVector().u1(CONSTANT_NAME_AND_TYPE).u2(nameIndex).u2(descriptorIndex));
+    }
+
+    private int member(int tag, String owner, String name, String descriptor) {
+        int classIndex = classRef(owner);
+        int nameAndTypeIndex = nameAndType(name, descriptor);
+        return entry(tag + owner + '.' + name + ':' + descriptor,
+                new ByteVector().u1(tag).u2(classIndex).u2(nameAndTypeIndex));
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return member(CONSTANT_FIELDREF, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return member(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    void field(int access, String name, String descriptor) {
+        fields.u2(access).u2(utf8(name)).u2(utf8(descriptor)).u2(0);
+        ++fieldCount;
+    }
+
+    MethodWriter method(int access, String name, String descriptor) {
+        MethodWriter result = new MethodWriter(this, access, name, descriptor);
+        methods.add(result);
+
+        return result;
+    }
+
+    byte[] toByteArray() {
+        int thisIndex = classRef(name);
+        int superIndex = classRef(superName);
+
+        ByteVector body = new ByteVector();
+        for (MethodWriter method : methods) {
+            method.write(body);
+        }
+
+        return new ByteVector()
+                .u4(MAGIC)
+                .u2(0)
+                .u2(VERSION)
+                .u2(count)
+                .bytes(pool)
+                .u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER)
+                .u2(thisIndex)
+                .u2(superIndex)
+                .u2(0)
+                .u2(fieldCount)
+                .bytes(fields)
+                .u2(methods.size())
+                .bytes(body)
+                .u2(0)
+                .toByteArray();
+    }
+}
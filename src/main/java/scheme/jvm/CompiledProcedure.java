@@ -0,0 +1,59 @@
+package scheme.jvm;
+
+import scheme.Environment;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.expression.CombinationExpression;
+import scheme.procedure.CompoundProcedure;
+
+import java.util.Arrays;
+
+/**
+ * The base of the classes generated by the {@link JvmCompiler} from the body of a {@link CompoundProcedure}.
+ */
+public abstract class CompiledProcedure implements Procedure {
+    private final CompoundProcedure source;
+
+    protected CompiledProcedure(CompoundProcedure source) {
+        this.source = source;
+    }
+
+    public CompoundProcedure source() {
+        return source;
+    }
+
+    /**
+     * Executes the compiled body with the arguments already checked against the parameters.
+     * The result of a call in a tail position to another procedure may be left unforced.
+     */
+    public abstract Expression execute(Expression[] arguments);
+
+    @Override
+    public Expression eval(Environment environment) {
+        return this;
+    }
+
+    @Override
+    public Expression apply(CombinationExpression arguments) {
+        return apply(arguments.toArray());
+    }
+
+    @Override
+    public Expression apply(Expression[] arguments) {
+        int arity = source.parameters().size();
+        if (arity < arguments.length) {
+            throw new RuntimeException(String.format("Too many arguments supplied: %s %s",
+                    source.parameters(), Arrays.asList(arguments)));
+        } else if (arity > arguments.length) {
+            throw new RuntimeException(String.format("Too few arguments supplied: %s %s",
+                    source.parameters(), Arrays.asList(arguments)));
+        }
+
+        return Linkage.force(execute(arguments));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[compiled-procedure %s]", source.parameters());
+    }
+}
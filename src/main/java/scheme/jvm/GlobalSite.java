@@ -0,0 +1,160 @@
+package scheme.jvm;
+
+import scheme.Cell;
+import scheme.DefaultEnvironment;
+import scheme.Environment;
+import scheme.Expression;
+import scheme.FrameEnvironment;
+import scheme.GlobalEnvironment;
+import scheme.expression.SymbolExpression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The value of a free variable as seen from compiled code. The site speculates that the binding stays put
+ * and links to its current value as a constant; defining or assigning a variable of the same name
+ * relinks every site of that name on its next use. A site relinked too often gives up speculating
+ * and looks the variable up on every use, reading the cell of a variable of a {@link GlobalEnvironment}.
+ * <p>
+ * Only bindings outside frames are speculated on: a variable bound in a {@link FrameEnvironment} is read from
+ * its frame on every use, so that defining and assigning frame variables need not relink anything.
+ */
+public final class GlobalSite extends MutableCallSite {
+    private static final int RELINK_LIMIT = 8;
+
+    private static final MethodType TYPE = MethodType.methodType(Expression.class);
+
+    private static final MethodHandle RELINK;
+    private static final MethodHandle LOOKUP;
+    private static final MethodHandle VALUE;
+    private static final MethodHandle FRAME_LOOKUP;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            RELINK = lookup.findVirtual(GlobalSite.class, "relink", TYPE);
+            LOOKUP = lookup.findVirtual(Environment.class, "lookup",
+                    MethodType.methodType(Expression.class, SymbolExpression.class));
+            VALUE = lookup.findVirtual(Cell.class, "value", TYPE);
+            FRAME_LOOKUP = lookup.findVirtual(FrameEnvironment.class, "lookup",
+                    MethodType.methodType(Expression.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final Map<SymbolExpression, Set<GlobalSite>> SITES = new ConcurrentHashMap<>();
+    private static volatile boolean linked;
+
+    static GlobalSite make(Environment environment, SymbolExpression variable) {
+        GlobalSite result = new GlobalSite(environment, variable);
+
+        MethodHandle frameLookup = frameLookup(environment, variable);
+        if (frameLookup != null) {
+            result.setTarget(frameLookup);
+            return result;
+        }
+
+        SITES.computeIfAbsent(variable, (SymbolExpression key) -> Collections.synchronizedSet(
+                Collections.newSetFromMap(new WeakHashMap<>()))).add(result);
+        linked = true;
+
+        return result;
+    }
+
+    /**
+     * Returns a handle reading the variable from the frame that binds it, or `null` if no frame does.
+     * A frame reached through the frames enclosing the environment directly is read by its coordinates.
+     */
+    private static MethodHandle frameLookup(Environment environment, SymbolExpression variable) {
+        boolean direct = true;
+        int depth = 0;
+
+        Environment current = environment;
+        while (true) {
+            if (current instanceof FrameEnvironment) {
+                FrameEnvironment frame = (FrameEnvironment) current;
+                int index = frame.indexOf(variable);
+                if (index >= 0) {
+                    return direct
+                            ? MethodHandles.insertArguments(FRAME_LOOKUP, 0, environment, depth, index)
+                            : MethodHandles.insertArguments(LOOKUP, 0, environment, variable);
+                }
+
+                current = frame.enclosing();
+                ++depth;
+            } else if (current instanceof DefaultEnvironment && !((DefaultEnvironment) current).binds(variable)) {
+                current = ((DefaultEnvironment) current).enclosing();
+                direct = false;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Notifies the compiled code that the binding of the variable has changed in some environment.
+     */
+    public static void invalidate(SymbolExpression variable) {
+        if (!linked) {
+            return;
+        }
+
+        Set<GlobalSite> sites = SITES.get(variable);
+        if (sites == null) {
+            return;
+        }
+
+        synchronized (sites) {
+            for (GlobalSite site : sites) {
+                site.unlink();
+            }
+        }
+    }
+
+
+    private final Environment environment;
+    private final SymbolExpression variable;
+
+    private int relinks;
+
+    private GlobalSite(Environment environment, SymbolExpression variable) {
+        super(TYPE);
+        this.environment = environment;
+        this.variable = variable;
+
+        setTarget(RELINK.bindTo(this));
+    }
+
+    private Expression relink() {
+        Expression result = environment.lookup(variable);
+        if (++relinks > RELINK_LIMIT) {
+            setTarget(environment instanceof GlobalEnvironment
+                    ? VALUE.bindTo(((GlobalEnvironment) environment).cell(variable))
+                    : MethodHandles.insertArguments(LOOKUP, 0, environment, variable));
+        } else {
+            setTarget(MethodHandles.constant(Expression.class, result));
+        }
+
+        return result;
+    }
+
+    private void unlink() {
+        if (relinks <= RELINK_LIMIT) {
+            setTarget(RELINK.bindTo(this));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[global-site %s]", variable);
+    }
+}
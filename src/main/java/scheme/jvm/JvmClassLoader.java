@@ -0,0 +1,15 @@
+package scheme.jvm;
+
+/**
+ * Defines a single generated class. Each class gets a loader of its own, so that it can be unloaded
+ * as soon as the procedure compiled into it is no longer referenced.
+ */
+final class JvmClassLoader extends ClassLoader {
+    JvmClassLoader() {
+        super(JvmClassLoader.class.getClassLoader());
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
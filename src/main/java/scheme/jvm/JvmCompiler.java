@@ -0,0 +1,491 @@
+package scheme.jvm;
+
+import scheme.Core;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.Utilities;
+import scheme.expression.*;
+import scheme.jvm.MethodWriter.Label;
+import scheme.procedure.CompoundProcedure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static scheme.jvm.ClassWriter.*;
+import static scheme.jvm.MethodWriter.*;
+
+/**
+ * Compiles the body of a {@link CompoundProcedure} into a JVM class extending {@link CompiledProcedure},
+ * so that HotSpot can inline and optimize it like any other Java code.
+ * <p>
+ * The body becomes a static method taking the arguments as its parameters; `let` variables become locals.
+ * Free variables are read through a {@link GlobalSite} each, held in a static final field, so that HotSpot
+ * folds their values into the code and deoptimizes it when they are redefined. A call to the procedure itself
+ * is a direct invocation of the static method, and a jump back to its start in a tail position.
+ * <p>
+ * Bodies containing forms that would need a heap-allocated frame (internal definitions, nested lambdas,
+ * assignments to free variables) are not compiled.
+ */
+public final class JvmCompiler {
+    private static final String EXPRESSION = "scheme/Expression";
+    private static final String EXPRESSION_TYPE = "L" + EXPRESSION + ";";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLE_TYPE = "L" + METHOD_HANDLE + ";";
+    private static final String LINKAGE = "scheme/jvm/Linkage";
+    private static final String COMPILED_PROCEDURE = "scheme/jvm/CompiledProcedure";
+    private static final String COMPOUND_PROCEDURE = "scheme/procedure/CompoundProcedure";
+
+    private static final String BINARY = "(" + EXPRESSION_TYPE + EXPRESSION_TYPE + EXPRESSION_TYPE + ")" + EXPRESSION_TYPE;
+    private static final String CALL = "(" + EXPRESSION_TYPE + "[" + EXPRESSION_TYPE + ")" + EXPRESSION_TYPE;
+
+    private static final int MAXIMUM_ARITY = 200;
+
+    private static final SymbolExpression ELSE = SymbolExpression.make("else");
+
+    private static final List<SymbolExpression> COMPARISONS = Arrays.asList(
+            SymbolExpression.make("<"),
+            SymbolExpression.make("<="),
+            SymbolExpression.make("="),
+            SymbolExpression.make(">="),
+            SymbolExpression.make(">"));
+
+    private static final Map<SymbolExpression, String> ARITHMETIC = new HashMap<>();
+
+    static {
+        ARITHMETIC.put(SymbolExpression.make("+"), "add");
+        ARITHMETIC.put(SymbolExpression.make("-"), "subtract");
+        ARITHMETIC.put(SymbolExpression.make("*"), "multiply");
+    }
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    /**
+     * Compiles the procedure into a class of its own,
+     * returns the procedure itself if its body cannot be compiled.
+     */
+    public static Procedure compile(CompoundProcedure procedure) {
+        if (procedure.parameters().size() > MAXIMUM_ARITY) {
+            return procedure;
+        }
+
+        JvmCompiler compiler = new JvmCompiler(procedure, "scheme/jvm/Compiled$" + COUNT.incrementAndGet());
+
+        byte[] bytes;
+        try {
+            bytes = compiler.generate();
+        } catch (UnsupportedOperationException e) {
+            return procedure;
+        }
+
+        return compiler.load(bytes);
+    }
+
+
+    private final CompoundProcedure procedure;
+    private final String className;
+    private final String descriptor;
+
+    private final List<Object> constants = new ArrayList<>();
+    private final List<String> fieldNames = new ArrayList<>();
+    private final List<String> fieldTypes = new ArrayList<>();
+    private final Map<Expression, String> literals = new HashMap<>();
+    private final Map<SymbolExpression, String> sites = new HashMap<>();
+
+    private final List<SymbolExpression> names = new ArrayList<>();
+    private final List<Integer> slots = new ArrayList<>();
+    private int locals;
+
+    private MethodWriter method;
+    private final Label start = new Label();
+
+    private JvmCompiler(CompoundProcedure procedure, String className) {
+        this.procedure = procedure;
+        this.className = className;
+
+        StringBuilder descriptor = new StringBuilder("(");
+        for (int index = 0; index < procedure.parameters().size(); ++index) {
+            descriptor.append(EXPRESSION_TYPE);
+        }
+        this.descriptor = descriptor.append(')').append(EXPRESSION_TYPE).toString();
+
+        field(procedure, "SOURCE", EXPRESSION);
+    }
+
+    private String field(Object constant, String name, String type) {
+        constants.add(constant);
+        fieldNames.add(name);
+        fieldTypes.add(type);
+
+        return name;
+    }
+
+    private String literal(Expression expression) {
+        String result = literals.get(expression);
+        if (result == null) {
+            result = field(expression, "C" + constants.size(), EXPRESSION);
+            literals.put(expression, result);
+        }
+
+        return result;
+    }
+
+    private String site(SymbolExpression variable) {
+        String result = sites.get(variable);
+        if (result == null) {
+            GlobalSite site = GlobalSite.make(procedure.environment(), variable);
+            result = field(site.dynamicInvoker(), "G" + constants.size(), METHOD_HANDLE);
+            sites.put(variable, result);
+        }
+
+        return result;
+    }
+
+    private int slot(SymbolExpression variable) {
+        int index = names.lastIndexOf(variable);
+        return index < 0 ? -1 : slots.get(index);
+    }
+
+    private boolean isSelf(SymbolExpression variable) {
+        try {
+            return procedure.environment().lookup(variable) == procedure;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private byte[] generate() {
+        ClassWriter writer = new ClassWriter(className, COMPILED_PROCEDURE);
+
+        method = writer.method(ACC_PUBLIC | ACC_STATIC, "invoke", descriptor);
+        for (SymbolExpression parameter : procedure.parameters()) {
+            names.add(parameter);
+            slots.add(locals++);
+        }
+
+        method.mark(start);
+        compileSequence(procedure.expressions(), true);
+
+        writer.field(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "SELF", "L" + COMPILED_PROCEDURE + ";");
+        for (int index = 0; index < constants.size(); ++index) {
+            writer.field(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, fieldNames.get(index), "L" + fieldTypes.get(index) + ";");
+        }
+
+        generateInitializer(writer);
+        generateConstructor(writer);
+        generateExecute(writer);
+
+        return writer.toByteArray();
+    }
+
+    private Procedure load(byte[] bytes) {
+        String name = className.replace('/', '.');
+        Linkage.register(name, constants.toArray());
+
+        Class<?> type = new JvmClassLoader().define(name, bytes);
+        try {
+            return (Procedure) type.getField("SELF").get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Initializes the static fields from the constants registered with the {@link Linkage}.
+     */
+    private void generateInitializer(ClassWriter writer) {
+        MethodWriter initializer = writer.method(ACC_STATIC, "<clinit>", "()V");
+        initializer.ldc(className.replace('/', '.'));
+        initializer.invoke(INVOKESTATIC, LINKAGE, "constants", "(Ljava/lang/String;)[Ljava/lang/Object;");
+        initializer.store(0);
+
+        for (int index = 0; index < constants.size(); ++index) {
+            initializer.load(0);
+            initializer.push(index);
+            initializer.op(AALOAD, -1);
+            initializer.type(CHECKCAST, fieldTypes.get(index));
+            initializer.putStatic(className, fieldNames.get(index), "L" + fieldTypes.get(index) + ";");
+        }
+
+        initializer.type(NEW, className);
+        initializer.op(DUP, 1);
+        initializer.load(0);
+        initializer.push(0);
+        initializer.op(AALOAD, -1);
+        initializer.type(CHECKCAST, COMPOUND_PROCEDURE);
+        initializer.invoke(INVOKESPECIAL, className, "<init>", "(L" + COMPOUND_PROCEDURE + ";)V");
+        initializer.putStatic(className, "SELF", "L" + COMPILED_PROCEDURE + ";");
+        initializer.op(RETURN, 0);
+    }
+
+    private void generateConstructor(ClassWriter writer) {
+        MethodWriter constructor = writer.method(ACC_PUBLIC, "<init>", "(L" + COMPOUND_PROCEDURE + ";)V");
+        constructor.load(0);
+        constructor.load(1);
+        constructor.invoke(INVOKESPECIAL, COMPILED_PROCEDURE, "<init>", "(L" + COMPOUND_PROCEDURE + ";)V");
+        constructor.op(RETURN, 0);
+    }
+
+    private void generateExecute(ClassWriter writer) {
+        MethodWriter execute = writer.method(ACC_PUBLIC, "execute", "([" + EXPRESSION_TYPE + ")" + EXPRESSION_TYPE);
+        for (int index = 0; index < procedure.parameters().size(); ++index) {
+            execute.load(1);
+            execute.push(index);
+            execute.op(AALOAD, -1);
+        }
+        execute.invoke(INVOKESTATIC, className, "invoke", descriptor);
+        execute.op(ARETURN, -1);
+    }
+
+
+    private void emitReturn(boolean tail) {
+        if (tail) {
+            method.op(ARETURN, -1);
+        }
+    }
+
+    private void emitConstant(Expression expression) {
+        method.getStatic(className, literal(expression), EXPRESSION_TYPE);
+    }
+
+    private void compile(Expression expression, boolean tail) {
+        if (expression instanceof SymbolExpression) {
+            compileVariable((SymbolExpression) expression);
+        } else if (expression instanceof QuoteExpression) {
+            emitConstant(((QuoteExpression) expression).expression());
+        } else if (expression instanceof AssignmentExpression) {
+            compileAssignment((AssignmentExpression) expression);
+        } else if (expression instanceof IfExpression) {
+            compileIf((IfExpression) expression, tail);
+            return;
+        } else if (expression instanceof BeginExpression) {
+            compileSequence(((BeginExpression) expression).expressions(), tail);
+            return;
+        } else if (expression instanceof CondExpression) {
+            compileCond(((CondExpression) expression).clauses(), tail);
+            return;
+        } else if (expression instanceof LetExpression) {
+            compileLet((LetExpression) expression, tail);
+            return;
+        } else if (expression instanceof UnitExpression) {
+            emitConstant(expression);
+        } else if (expression instanceof CombinationExpression && !Utilities.isNull(expression)) {
+            compileApplication((CombinationExpression) expression, tail);
+            return;
+        } else if (Utilities.isNumber(expression) || Utilities.isString(expression)) {
+            emitConstant(expression);
+        } else {
+            throw new UnsupportedOperationException(String.format("Cannot compile: %s", expression));
+        }
+
+        emitReturn(tail);
+    }
+
+    private void compileVariable(SymbolExpression variable) {
+        int slot = slot(variable);
+        if (slot >= 0) {
+            method.load(slot);
+            return;
+        }
+
+        method.getStatic(className, site(variable), METHOD_HANDLE_TYPE);
+        method.invoke(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", "()" + EXPRESSION_TYPE);
+    }
+
+    private void compileAssignment(AssignmentExpression expression) {
+        int slot = slot(expression.variable());
+        if (slot < 0) {
+            throw new UnsupportedOperationException(String.format("Cannot compile: %s", expression));
+        }
+
+        compile(expression.value(), false);
+        method.store(slot);
+        emitConstant(Core.UNIT);
+    }
+
+    /**
+     * Compiles the predicate so that control falls through when it holds.
+     */
+    private void compilePredicate(Expression predicate, Label otherwise) {
+        if (predicate instanceof CombinationExpression && !Utilities.isNull(predicate)) {
+            CombinationExpression combination = (CombinationExpression) predicate;
+            List<Expression> operands = combination.rest().expressions();
+
+            int comparison = COMPARISONS.indexOf(combination.car());
+            if (comparison >= 0 && operands.size() == 2 && slot((SymbolExpression) combination.car()) < 0) {
+                method.push(comparison);
+                compileVariable((SymbolExpression) combination.car());
+                compile(operands.get(0), false);
+                compile(operands.get(1), false);
+                method.invoke(INVOKESTATIC, LINKAGE, "compare",
+                        "(I" + EXPRESSION_TYPE + EXPRESSION_TYPE + EXPRESSION_TYPE + ")Z");
+                method.jump(IFEQ, otherwise);
+                return;
+            }
+        }
+
+        compile(predicate, false);
+        method.invoke(INVOKESTATIC, "scheme/Utilities", "isFalse", "(" + EXPRESSION_TYPE + ")Z");
+        method.jump(IFNE, otherwise);
+    }
+
+    private void compileIf(IfExpression expression, boolean tail) {
+        Label alternative = new Label();
+        compilePredicate(expression.predicate(), alternative);
+
+        compile(expression.consequent(), tail);
+        if (tail) {
+            method.mark(alternative);
+            compile(expression.alternative(), true);
+            return;
+        }
+
+        Label end = new Label();
+        method.jump(GOTO, end);
+        method.mark(alternative);
+        compile(expression.alternative(), false);
+        method.mark(end);
+    }
+
+    private void compileCond(List<CombinationExpression> clauses, boolean tail) {
+        Label end = new Label();
+        for (CombinationExpression clause : clauses) {
+            if (ELSE.equals(clause.car())) {
+                compileSequence(clause.rest().expressions(), tail);
+                method.mark(end);
+                return;
+            }
+
+            Label next = new Label();
+            compilePredicate(clause.car(), next);
+            compileSequence(clause.rest().expressions(), tail);
+            if (!tail) {
+                method.jump(GOTO, end);
+            }
+            method.mark(next);
+        }
+
+        emitConstant(Core.FALSE);
+        emitReturn(tail);
+        method.mark(end);
+    }
+
+    private void compileSequence(List<Expression> expressions, boolean tail) {
+        if (expressions.isEmpty()) {
+            emitConstant(Core.UNIT);
+            emitReturn(tail);
+            return;
+        }
+
+        int last = expressions.size() - 1;
+        int index = 0;
+        for (Expression expression : expressions) {
+            if (index++ < last) {
+                compile(expression, false);
+                method.op(POP, -1);
+            } else {
+                compile(expression, tail);
+            }
+        }
+    }
+
+    private void compileLet(LetExpression expression, boolean tail) {
+        List<SymbolExpression> variables = new ArrayList<>();
+        List<Integer> bound = new ArrayList<>();
+        for (CombinationExpression binding : expression.bindings()) {
+            compile(binding.rest().car(), false);
+
+            int slot = locals++;
+            method.store(slot);
+            variables.add(Utilities.asSymbol(binding.car()));
+            bound.add(slot);
+        }
+
+        int mark = names.size();
+        names.addAll(variables);
+        slots.addAll(bound);
+
+        compileSequence(expression.expressions(), tail);
+
+        names.subList(mark, names.size()).clear();
+        slots.subList(mark, slots.size()).clear();
+    }
+
+    private void compileArguments(List<Expression> operands) {
+        method.push(operands.size());
+        method.type(ANEWARRAY, EXPRESSION);
+        int index = 0;
+        for (Expression operand : operands) {
+            method.op(DUP, 1);
+            method.push(index++);
+            compile(operand, false);
+            method.op(AASTORE, -3);
+        }
+    }
+
+    private void compileApplication(CombinationExpression expression, boolean tail) {
+        Expression operator = expression.car();
+        List<Expression> operands = expression.rest().expressions();
+
+        if (operator instanceof SymbolExpression && slot((SymbolExpression) operator) < 0) {
+            SymbolExpression variable = (SymbolExpression) operator;
+
+            String helper = ARITHMETIC.get(variable);
+            if (helper != null && operands.size() == 2) {
+                compileVariable(variable);
+                compile(operands.get(0), false);
+                compile(operands.get(1), false);
+                method.invoke(INVOKESTATIC, LINKAGE, helper, BINARY);
+                emitReturn(tail);
+                return;
+            }
+
+            if (operands.size() == procedure.parameters().size() && isSelf(variable)) {
+                compileSelfApplication(variable, operands, tail);
+                return;
+            }
+        }
+
+        compile(operator, false);
+        compileArguments(operands);
+        method.invoke(INVOKESTATIC, LINKAGE, tail ? "tailCall" : "call", CALL);
+        emitReturn(tail);
+    }
+
+    /**
+     * Calls the static method directly as long as the variable is bound to the procedure being compiled.
+     */
+    private void compileSelfApplication(SymbolExpression variable, List<Expression> operands, boolean tail) {
+        Label generic = new Label();
+        Label end = new Label();
+
+        compileVariable(variable);
+        method.op(DUP, 1);
+        method.getStatic(className, "SOURCE", EXPRESSION_TYPE);
+        method.jump(IF_ACMPNE, generic);
+        method.op(POP, -1);
+
+        for (Expression operand : operands) {
+            compile(operand, false);
+        }
+        if (tail) {
+            for (int index = operands.size() - 1; index >= 0; --index) {
+                method.store(index);
+            }
+            method.jump(GOTO, start);
+        } else {
+            method.invoke(INVOKESTATIC, className, "invoke", descriptor);
+            method.invoke(INVOKESTATIC, LINKAGE, "force", "(" + EXPRESSION_TYPE + ")" + EXPRESSION_TYPE);
+            method.jump(GOTO, end);
+        }
+
+        method.mark(generic);
+        compileArguments(operands);
+        method.invoke(INVOKESTATIC, LINKAGE, tail ? "tailCall" : "call", CALL);
+        method.mark(end);
+        emitReturn(tail);
+    }
+}
@@ -0,0 +1,123 @@
+package scheme.jvm;
+
+import scheme.Core;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.Utilities;
+import scheme.expression.IntegralExpression;
+import scheme.procedure.TailCall;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The runtime support called from the classes generated by the {@link JvmCompiler}.
+ * Generated classes live in a class loader of their own, so everything here has to be public.
+ */
+public final class Linkage {
+    private static final Procedure[] COMPARISONS = {
+            Core.LESS_THAN,
+            Core.LESS_THAN_OR_EQUAL_TO,
+            Core.EQUAL_TO,
+            Core.GREATER_THAN_OR_EQUAL_TO,
+            Core.GREATER_THAN
+    };
+
+    private static final Map<String, Object[]> CONSTANTS = new ConcurrentHashMap<>();
+
+    static void register(String className, Object[] constants) {
+        CONSTANTS.put(className, constants);
+    }
+
+    /**
+     * Hands the constants over to the static initializer of the generated class.
+     */
+    public static Object[] constants(String className) {
+        return CONSTANTS.remove(className);
+    }
+
+    public static Expression call(Expression operator, Expression[] arguments) {
+        return Utilities.asProcedure(operator).apply(arguments);
+    }
+
+    public static Expression tailCall(Expression operator, Expression[] arguments) {
+        return Utilities.asProcedure(operator).applyTail(arguments);
+    }
+
+    public static Expression force(Expression result) {
+        if (result instanceof TailCall) {
+            TailCall call = (TailCall) result;
+            return call.procedure().apply(call.arguments());
+        }
+
+        return result;
+    }
+
+    private static boolean compare(int comparison, long x, long y) {
+        switch (comparison) {
+            case 0:
+                return x < y;
+            case 1:
+                return x <= y;
+            case 2:
+                return x == y;
+            case 3:
+                return x >= y;
+            default:
+                return x > y;
+        }
+    }
+
+    /**
+     * Compares two integers in place if the operator is still the primitive comparison,
+     * otherwise applies the operator.
+     */
+    public static boolean compare(int comparison, Expression operator, Expression x, Expression y) {
+        if (operator == COMPARISONS[comparison]
+                && x instanceof IntegralExpression
+                && y instanceof IntegralExpression) {
+            return compare(comparison, ((IntegralExpression) x).value(), ((IntegralExpression) y).value());
+        }
+
+        return Utilities.isTrue(call(operator, new Expression[]{x, y}));
+    }
+
+    public static Expression add(Expression operator, Expression x, Expression y) {
+        if (operator == Core.ADD && x instanceof IntegralExpression && y instanceof IntegralExpression) {
+            try {
+                return IntegralExpression.make(
+                        Math.addExact(((IntegralExpression) x).value(), ((IntegralExpression) y).value()));
+            } catch (ArithmeticException overflow) {
+                return call(operator, new Expression[]{x, y});
+            }
+        }
+
+        return call(operator, new Expression[]{x, y});
+    }
+
+    public static Expression subtract(Expression operator, Expression x, Expression y) {
+        if (operator == Core.SUBTRACT && x instanceof IntegralExpression && y instanceof IntegralExpression) {
+            try {
+                return IntegralExpression.make(
+                        Math.subtractExact(((IntegralExpression) x).value(), ((IntegralExpression) y).value()));
+            } catch (ArithmeticException overflow) {
+                return call(operator, new Expression[]{x, y});
+            }
+        }
+
+        return call(operator, new Expression[]{x, y});
+    }
+
+    public static Expression multiply(Expression operator, Expression x, Expression y) {
+        if (operator == Core.MULTIPLY && x instanceof IntegralExpression && y instanceof IntegralExpression) {
+            try {
+                return IntegralExpression.make(
+                        Math.multiplyExact(((IntegralExpression) x).value(), ((IntegralExpression) y).value()));
+            } catch (ArithmeticException overflow) {
+                return call(operator, new Expression[]{x, y});
+            }
+        }
+
+        return call(operator, new Expression[]{x, y});
+    }
+}
@@ -0,0 +1,243 @@
+package scheme.jvm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the code of a method, keeping track of the depth of the operand stack and of the locals used.
+ * Branches refer to {@link Label}s and are patched once the labels are marked.
+ */
+final class MethodWriter {
+    static final int ACONST_NULL = 1;
+    static final int ICONST_0 = 3;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC = 18;
+    static final int LDC_W = 19;
+    static final int ALOAD = 25;
+    static final int ALOAD_0 = 42;
+    static final int AALOAD = 50;
+    static final int ASTORE = 58;
+    static final int ASTORE_0 = 75;
+    static final int AASTORE = 83;
+    static final int POP = 87;
+    static final int DUP = 89;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IF_ACMPEQ = 165;
+    static final int IF_ACMPNE = 166;
+    static final int GOTO = 167;
+    static final int ARETURN = 176;
+    static final int RETURN = 177;
+    static final int GETSTATIC = 178;
+    static final int PUTSTATIC = 179;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESPECIAL = 183;
+    static final int INVOKESTATIC = 184;
+    static final int NEW = 187;
+    static final int ANEWARRAY = 189;
+    static final int CHECKCAST = 192;
+
+    /**
+     * A position in the code, possibly referred to before it is known.
+     */
+    static final class Label {
+        private int position = -1;
+        private int stack = -1;
+        private final List<Integer> references = new ArrayList<>();
+    }
+
+
+    private final ClassWriter owner;
+    private final int access;
+    private final String name;
+    private final String descriptor;
+
+    private final ByteVector code = new ByteVector();
+    private int stack;
+    private int maxStack;
+    private int maxLocals;
+
+    MethodWriter(ClassWriter owner, int access, String name, String descriptor) {
+        this.owner = owner;
+        this.access = access;
+        this.name = name;
+        this.descriptor = descriptor;
+
+        this.maxLocals = ((access & ClassWriter.ACC_STATIC) == 0 ? 1 : 0) + parameterSize(descriptor);
+    }
+
+    /**
+     * Returns the number of words taken by the parameters of the method descriptor.
+     */
+    private static int parameterSize(String descriptor) {
+        int result = 0;
+        for (int index = 1; descriptor.charAt(index) != ')'; ++index) {
+            char type = descriptor.charAt(index);
+            while (type == '[') {
+                type = descriptor.charAt(++index);
+            }
+            if (type == 'L') {
+                index = descriptor.indexOf(';', index);
+            }
+
+            result += (type == 'J' || type == 'D') && descriptor.charAt(index - 1) != '[' ? 2 : 1;
+        }
+
+        return result;
+    }
+
+    private static int returnSize(String descriptor) {
+        char type = descriptor.charAt(descriptor.indexOf(')') + 1);
+        return type == 'V' ? 0 : type == 'J' || type == 'D' ? 2 : 1;
+    }
+
+    private void adjust(int delta) {
+        stack += delta;
+        if (stack > maxStack) {
+            maxStack = stack;
+        }
+    }
+
+    private void local(int index) {
+        if (index + 1 > maxLocals) {
+            maxLocals = index + 1;
+        }
+    }
+
+    void op(int opcode, int delta) {
+        code.u1(opcode);
+        adjust(delta);
+    }
+
+    void push(int value) {
+        if (value >= -1 && value <= 5) {
+            op(ICONST_0 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            op(BIPUSH, 1);
+            code.u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            op(SIPUSH, 1);
+            code.u2(value);
+        } else {
+            ldc(owner.integer(value));
+        }
+    }
+
+    void ldc(String value) {
+        ldc(owner.string(value));
+    }
+
+    private void ldc(int index) {
+        if (index < 256) {
+            op(LDC, 1);
+            code.u1(index);
+        } else {
+            op(LDC_W, 1);
+            code.u2(index);
+        }
+    }
+
+    void load(int index) {
+        local(index);
+        if (index < 4) {
+            op(ALOAD_0 + index, 1);
+        } else {
+            op(ALOAD, 1);
+            code.u1(checkLocal(index));
+        }
+    }
+
+    void store(int index) {
+        local(index);
+        if (index < 4) {
+            op(ASTORE_0 + index, -1);
+        } else {
+            op(ASTORE, -1);
+            code.u1(checkLocal(index));
+        }
+    }
+
+    private static int checkLocal(int index) {
+        if (index > 255) {
+            throw new UnsupportedOperationException(String.format("Too many locals: %d", index));
+        }
+
+        return index;
+    }
+
+    void type(int opcode, String internalName) {
+        op(opcode, opcode == NEW ? 1 : 0);
+        code.u2(owner.classRef(internalName));
+    }
+
+    void getStatic(String owner, String name, String descriptor) {
+        op(GETSTATIC, returnSize("()" + descriptor));
+        code.u2(this.owner.fieldRef(owner, name, descriptor));
+    }
+
+    void putStatic(String owner, String name, String descriptor) {
+        op(PUTSTATIC, -returnSize("()" + descriptor));
+        code.u2(this.owner.fieldRef(owner, name, descriptor));
+    }
+
+    void invoke(int opcode, String owner, String name, String descriptor) {
+        int receiver = opcode == INVOKESTATIC ? 0 : 1;
+        op(opcode, returnSize(descriptor) - parameterSize(descriptor) - receiver);
+        code.u2(this.owner.methodRef(owner, name, descriptor));
+    }
+
+    void jump(int opcode, Label label) {
+        int at = code.length();
+        op(opcode, opcode == GOTO ? 0 : opcode == IF_ACMPEQ || opcode == IF_ACMPNE ? -2 : -1);
+
+        label.stack = stack;
+        if (label.position >= 0) {
+            code.u2(offset(label.position - at));
+        } else {
+            label.references.add(at);
+            code.u2(0);
+        }
+    }
+
+    void mark(Label label) {
+        label.position = code.length();
+        if (label.stack >= 0) {
+            stack = label.stack;
+        } else {
+            label.stack = stack;
+        }
+
+        for (int at : label.references) {
+            code.putU2(at + 1, offset(label.position - at));
+        }
+        label.references.clear();
+    }
+
+    private static int offset(int offset) {
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+            throw new UnsupportedOperationException(String.format("Branch offset out of range: %d", offset));
+        }
+
+        return offset;
+    }
+
+    void write(ByteVector output) {
+        if (code.length() > 65535) {
+            throw new UnsupportedOperationException(String.format("Method too large: %s", name));
+        }
+
+        output.u2(access)
+                .u2(owner.utf8(name))
+                .u2(owner.utf8(descriptor))
+                .u2(1)
+                .u2(owner.utf8("Code"))
+                .u4(12 + code.length())
+                .u2(maxStack)
+                .u2(maxLocals)
+                .u4(code.length())
+                .bytes(code)
+                .u2(0)
+                .u2(0);
+    }
+}
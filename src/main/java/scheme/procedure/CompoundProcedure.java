@@ -1,18 +1,41 @@
 package scheme.procedure;
 
 import scheme.*;
+import scheme.analysis.Analyzer;
 import scheme.expression.CombinationExpression;
+import scheme.expression.LambdaExpression;
 import scheme.expression.SymbolExpression;
+import scheme.jvm.CompiledProcedure;
+import scheme.jvm.JvmCompiler;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A procedure made of a `lambda` body. The procedure counts its applications and promotes itself
+ * from {@link Tier#INTERPRETED} through {@link Tier#ANALYZED} to {@link Tier#COMPILED}
+ * as set by the {@link Tiering} thresholds.
+ */
 public class CompoundProcedure implements Procedure {
     public static CompoundProcedure make(Environment environment,
                                          List<SymbolExpression> parameters,
                                          List<Expression> expressions) {
-        return new CompoundProcedure(environment, parameters, expressions);
+        return new CompoundProcedure(environment, parameters, expressions, null, null);
+    }
+
+    /**
+     * Makes a procedure of an analyzed body that binds its arguments in a {@link FrameEnvironment}
+     * laid out as `frame`, the parameters occupying the leading slots.
+     */
+    public static CompoundProcedure make(Environment environment,
+                                         List<SymbolExpression> parameters,
+                                         List<Expression> expressions,
+                                         SymbolExpression[] frame,
+                                         Expression[] body) {
+        return new CompoundProcedure(environment, parameters, expressions, frame, body);
     }
 
 
@@ -21,12 +44,27 @@ public class CompoundProcedure implements Procedure {
     private final List<SymbolExpression> parameters;
     private final List<Expression> expressions;
 
+    private SymbolExpression[] frame;
+    private Expression[] body;
+    private CompiledProcedure compiled;
+
+    private Tier tier;
+    private int invocations;
+    private int promotion;
+
     private CompoundProcedure(Environment environment,
-                             List<SymbolExpression> parameters,
-                             List<Expression> expressions) {
+                              List<SymbolExpression> parameters,
+                              List<Expression> expressions,
+                              SymbolExpression[] frame,
+                              Expression[] body) {
         this.environment = environment;
         this.parameters = parameters;
         this.expressions = expressions;
+        this.frame = frame;
+        this.body = body;
+
+        this.tier = body == null ? Tier.INTERPRETED : Tier.ANALYZED;
+        this.promotion = Tiering.threshold(tier);
     }
 
     public Environment environment() {
@@ -37,40 +75,164 @@ public class CompoundProcedure implements Procedure {
         return parameters;
     }
 
+    /**
+     * Returns the body as written, whatever the tier of the procedure.
+     */
     public List<Expression> expressions() {
         return expressions;
     }
 
+    public Tier tier() {
+        return tier;
+    }
+
+    public int invocations() {
+        return invocations;
+    }
+
     @Override
     public Expression eval(Environment environment) {
         return null; // FIXME
     }
 
-    private static Map<SymbolExpression, Expression> bindings(List<SymbolExpression> variables,
-                                                              List<Expression> values) {
-        if (variables.size() < values.size()) {
-            throw new RuntimeException(String.format("Too many arguments supplied: %s %s", variables, values));
-        } else if (variables.size() > values.size()) {
-            throw new RuntimeException(String.format("Too few arguments supplied: %s %s", variables, values));
+    private static void checkArity(List<SymbolExpression> variables, Expression[] values) {
+        if (variables.size() < values.length) {
+            throw new RuntimeException(String.format("Too many arguments supplied: %s %s",
+                    variables, Arrays.asList(values)));
+        } else if (variables.size() > values.length) {
+            throw new RuntimeException(String.format("Too few arguments supplied: %s %s",
+                    variables, Arrays.asList(values)));
         }
+    }
+
+    private static Map<SymbolExpression, Expression> bindings(List<SymbolExpression> variables,
+                                                              Expression[] values) {
+        checkArity(variables, values);
 
         Map<SymbolExpression, Expression> result = new HashMap<>();
-        for (int index = 0; index < variables.size(); ++index) {
-            result.put(variables.get(index), values.get(index));
+        for (int index = 0; index < values.length; ++index) {
+            result.put(variables.get(index), values[index]);
         }
 
         return result;
     }
 
+    /**
+     * Returns the slots of the frame with the arguments in the leading ones,
+     * reusing the array of the arguments when the frame holds nothing else.
+     */
+    private static Expression[] slots(SymbolExpression[] frame,
+                                      List<SymbolExpression> variables,
+                                      Expression[] values) {
+        checkArity(variables, values);
+
+        return values.length == frame.length ? values : Arrays.copyOf(values, frame.length);
+    }
+
+    /**
+     * Extends the environment of the procedure with the bindings of its parameters to the arguments.
+     */
+    public Environment bind(CombinationExpression arguments) {
+        return bind(arguments.toArray());
+    }
+
+    /**
+     * Extends the environment of the procedure with the bindings of its parameters to the arguments,
+     * possibly keeping the array as the frame.
+     */
+    public Environment bind(Expression[] arguments) {
+        if (frame == null) {
+            return environment.extend(bindings(parameters, arguments));
+        }
+
+        return new FrameEnvironment(environment, frame, slots(frame, parameters, arguments));
+    }
+
+    private void promote() {
+        Tier from = tier;
+        if (tier == Tier.INTERPRETED) {
+            CompoundProcedure analyzed = (CompoundProcedure)
+                    Analyzer.analyze(LambdaExpression.make(parameters, expressions)).eval(environment);
+
+            frame = analyzed.frame;
+            body = analyzed.body;
+            tier = Tier.ANALYZED;
+        } else if (tier == Tier.ANALYZED) {
+            Procedure procedure = JvmCompiler.compile(this);
+            if (procedure instanceof CompiledProcedure) {
+                compiled = (CompiledProcedure) procedure;
+                tier = Tier.COMPILED;
+            }
+        }
+
+        promotion = tier == from ? Integer.MAX_VALUE : Tiering.threshold(tier);
+        if (tier != from) {
+            Tiering.promoted(this, from, tier);
+        }
+    }
+
+    private Expression execute(Expression[] arguments) {
+        if (++invocations >= promotion) {
+            promote();
+        }
+
+        if (compiled != null) {
+            checkArity(parameters, arguments);
+
+            return compiled.execute(arguments);
+        }
+
+        Environment extended = bind(arguments);
+        if (body != null) {
+            if (body.length == 0) {
+                return Core.UNIT;
+            }
+
+            int last = body.length - 1;
+            for (int index = 0; index < last; ++index) {
+                body[index].eval(extended);
+            }
+
+            return body[last].evalTail(extended);
+        }
+
+        Iterator<Expression> it = expressions.iterator();
+        if (!it.hasNext()) {
+            return Core.UNIT;
+        }
+
+        Expression expression = it.next();
+        while (it.hasNext()) {
+            expression.eval(extended);
+            expression = it.next();
+        }
+
+        return expression.evalTail(extended);
+    }
+
     @Override
     public Expression apply(CombinationExpression arguments) {
-        Environment extended = environment.extend(bindings(parameters, arguments.expressions()));
+        return apply(arguments.toArray());
+    }
 
-        Expression result = Core.UNIT;
-        for (Expression expression : expressions) {
-            result = expression.eval(extended);
+    @Override
+    public Expression apply(Expression[] arguments) {
+        Expression result = execute(arguments);
+        while (result instanceof TailCall) {
+            TailCall call = (TailCall) result;
+            result = call.procedure().execute(call.arguments());
         }
 
         return result;
     }
+
+    @Override
+    public Expression applyTail(CombinationExpression arguments) {
+        return applyTail(arguments.toArray());
+    }
+
+    @Override
+    public Expression applyTail(Expression[] arguments) {
+        return TailCall.make(this, arguments);
+    }
 }
@@ -5,20 +5,128 @@ import scheme.Expression;
 import scheme.Procedure;
 import scheme.expression.CombinationExpression;
 
-public class PrimitiveProcedure implements Procedure {
-    public interface Implementation {
-        Expression $(CombinationExpression arguments);
+import java.util.Arrays;
+
+/**
+ * A procedure implemented in Java. A primitive of a fixed arity takes its arguments through the matching
+ * entry point of {@link Procedure} (`apply1` for a primitive of one argument, say), so that callers that know
+ * the number of arguments pass them without collecting them first.
+ */
+public abstract class PrimitiveProcedure implements Procedure {
+    public interface Nullary {
+        Expression $();
+    }
+
+    public interface Unary {
+        Expression $(Expression x);
+    }
+
+    public interface Binary {
+        Expression $(Expression x, Expression y);
+    }
+
+    public interface Ternary {
+        Expression $(Expression x, Expression y, Expression z);
+    }
+
+    public interface Variadic {
+        Expression $(Expression[] arguments);
     }
 
-    public static PrimitiveProcedure make(Implementation implementation) {
-        return new PrimitiveProcedure(implementation);
+    private static final int VARIADIC = -1;
+
+    public static PrimitiveProcedure make0(Nullary implementation) {
+        return new PrimitiveProcedure(0) {
+            @Override
+            public Expression apply0() {
+                return implementation.$();
+            }
+        };
     }
 
+    public static PrimitiveProcedure make1(Unary implementation) {
+        return new PrimitiveProcedure(1) {
+            @Override
+            public Expression apply1(Expression x) {
+                return implementation.$(x);
+            }
+        };
+    }
 
-    private final Implementation implementation;
+    public static PrimitiveProcedure make2(Binary implementation) {
+        return new PrimitiveProcedure(2) {
+            @Override
+            public Expression apply2(Expression x, Expression y) {
+                return implementation.$(x, y);
+            }
+        };
+    }
+
+    public static PrimitiveProcedure make3(Ternary implementation) {
+        return new PrimitiveProcedure(3) {
+            @Override
+            public Expression apply3(Expression x, Expression y, Expression z) {
+                return implementation.$(x, y, z);
+            }
+        };
+    }
 
-    private PrimitiveProcedure(Implementation implementation) {
-        this.implementation = implementation;
+    public static PrimitiveProcedure makeN(Variadic implementation) {
+        return new PrimitiveProcedure(VARIADIC) {
+            @Override
+            public Expression apply(Expression[] arguments) {
+                return implementation.$(arguments);
+            }
+        };
+    }
+
+    /**
+     * Makes a primitive of two arguments that applies a procedure in turn (`apply`, say). In a tail position
+     * it is applied by `tail`, which may return the application as a pending tail call instead of making it.
+     */
+    public static PrimitiveProcedure make2(Binary implementation, Binary tail) {
+        return new PrimitiveProcedure(2) {
+            @Override
+            public Expression apply2(Expression x, Expression y) {
+                return implementation.$(x, y);
+            }
+
+            @Override
+            public Expression applyTail(CombinationExpression arguments) {
+                return applyTail(arguments.toArray());
+            }
+
+            @Override
+            public Expression applyTail(Expression[] arguments) {
+                checkArity(arguments);
+
+                return tail.$(arguments[0], arguments[1]);
+            }
+        };
+    }
+
+    /**
+     * Makes a primitive of any number of arguments that is applied to two arguments by `binary`.
+     */
+    public static PrimitiveProcedure makeN(Binary binary, Variadic implementation) {
+        return new PrimitiveProcedure(VARIADIC) {
+            @Override
+            public Expression apply2(Expression x, Expression y) {
+                return binary.$(x, y);
+            }
+
+            @Override
+            public Expression apply(Expression[] arguments) {
+                return arguments.length == 2 ? binary.$(arguments[0], arguments[1]) : implementation.$(arguments);
+            }
+        };
+    }
+
+
+    private final int arity;
+
+    private PrimitiveProcedure(int arity) {
+        this.arity = arity;
     }
 
     @Override
@@ -28,6 +136,35 @@ public class PrimitiveProcedure implements Procedure {
 
     @Override
     public Expression apply(CombinationExpression arguments) {
-        return implementation.$(arguments);
+        return apply(arguments.toArray());
+    }
+
+    final void checkArity(Expression[] arguments) {
+        if (arity < arguments.length) {
+            throw new RuntimeException(String.format("Too many arguments supplied: %s", Arrays.asList(arguments)));
+        } else if (arity > arguments.length) {
+            throw new RuntimeException(String.format("Too few arguments supplied: %s", Arrays.asList(arguments)));
+        }
+    }
+
+    @Override
+    public Expression apply(Expression[] arguments) {
+        checkArity(arguments);
+
+        switch (arity) {
+            case 0:
+                return apply0();
+            case 1:
+                return apply1(arguments[0]);
+            case 2:
+                return apply2(arguments[0], arguments[1]);
+            default:
+                return apply3(arguments[0], arguments[1], arguments[2]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "#[primitive-procedure]";
     }
 }
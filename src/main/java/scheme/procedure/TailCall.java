@@ -0,0 +1,42 @@
+package scheme.procedure;
+
+import scheme.Environment;
+import scheme.Expression;
+
+import java.util.Arrays;
+
+/**
+ * An application of a compound procedure deferred from a tail position.
+ */
+public final class TailCall implements Expression {
+    static TailCall make(CompoundProcedure procedure, Expression[] arguments) {
+        return new TailCall(procedure, arguments);
+    }
+
+
+    private final CompoundProcedure procedure;
+    private final Expression[] arguments;
+
+    private TailCall(CompoundProcedure procedure, Expression[] arguments) {
+        this.procedure = procedure;
+        this.arguments = arguments;
+    }
+
+    public CompoundProcedure procedure() {
+        return procedure;
+    }
+
+    public Expression[] arguments() {
+        return arguments;
+    }
+
+    @Override
+    public Expression eval(Environment environment) {
+        return procedure.apply(arguments);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#[tail-call %s]", Arrays.asList(arguments));
+    }
+}
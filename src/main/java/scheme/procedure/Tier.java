@@ -0,0 +1,21 @@
+package scheme.procedure;
+
+/**
+ * The ways a {@link CompoundProcedure} executes its body, from the cheapest to prepare to the fastest to run.
+ */
+public enum Tier {
+    /**
+     * The syntax tree of the body is walked on every application.
+     */
+    INTERPRETED,
+
+    /**
+     * The body is analyzed once into executable nodes (see {@link scheme.analysis.Analyzer}).
+     */
+    ANALYZED,
+
+    /**
+     * The body is compiled into a JVM class (see {@link scheme.jvm.JvmCompiler}).
+     */
+    COMPILED
+}
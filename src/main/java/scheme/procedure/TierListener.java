@@ -0,0 +1,9 @@
+package scheme.procedure;
+
+/**
+ * Observes the promotions of compound procedures from one {@link Tier} to the next.
+ */
+@FunctionalInterface
+public interface TierListener {
+    void promoted(CompoundProcedure procedure, Tier from, Tier to);
+}
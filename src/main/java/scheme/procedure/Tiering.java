@@ -0,0 +1,73 @@
+package scheme.procedure;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The policy promoting a {@link CompoundProcedure} to the next {@link Tier} once it has been applied
+ * a number of times. The thresholds are read from system properties; a threshold that is not positive
+ * disables its tier, together with the tiers above it.
+ * <p>
+ * Tiering is off unless {@link #ANALYZE_PROPERTY} is set, so that each evaluator named by
+ * {@link scheme.Evaluators#configured()} runs procedures by its own strategy only.
+ */
+public final class Tiering {
+    public static final String ANALYZE_PROPERTY = "scheme.tier.analyze";
+    public static final String COMPILE_PROPERTY = "scheme.tier.compile";
+
+    private static volatile int analyzeThreshold;
+    private static volatile int compileThreshold;
+
+    static {
+        reset();
+    }
+
+    private static final List<TierListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static int threshold(int value) {
+        return value > 0 ? value : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the thresholds of the procedures created from now on, the system properties notwithstanding.
+     */
+    public static void configure(int analyze, int compile) {
+        analyzeThreshold = threshold(analyze);
+        compileThreshold = threshold(compile);
+    }
+
+    /**
+     * Sets the thresholds back to those of the system properties.
+     */
+    public static void reset() {
+        configure(Integer.getInteger(ANALYZE_PROPERTY, 0), Integer.getInteger(COMPILE_PROPERTY, 1000));
+    }
+
+    /**
+     * Returns the number of applications after which a procedure in the tier is promoted.
+     */
+    static int threshold(Tier tier) {
+        switch (tier) {
+            case INTERPRETED:
+                return analyzeThreshold;
+            case ANALYZED:
+                return analyzeThreshold == Integer.MAX_VALUE ? Integer.MAX_VALUE : compileThreshold;
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    public static void addListener(TierListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(TierListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    static void promoted(CompoundProcedure procedure, Tier from, Tier to) {
+        for (TierListener listener : LISTENERS) {
+            listener.promoted(procedure, from, to);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package scheme.syntax;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the input must start with for a parser to succeed: the characters a non-empty match may begin with,
+ * whether the parser may succeed consuming nothing, and a lookahead that checks a leading part of the input
+ * (the opening parenthesis and keyword of a special form, say) without building anything.
+ * <p>
+ * The lookahead returns `-1` at a position where the parser certainly fails. A first set is exact when
+ * its lookahead mirrors the parser: it returns `-1` exactly where the parser fails, and otherwise the position
+ * the parser stops at. Lookaheads of a sequence of parsers are chained for as long as they are exact.
+ */
+public final class First {
+    @FunctionalInterface
+    public interface Lookahead {
+        int match(CharSequence input, int position);
+    }
+
+    /**
+     * The index standing for every character outside ASCII.
+     */
+    private static final int OTHER = 128;
+
+    private static boolean[] characters(Predicate<Character> predicate) {
+        boolean[] result = new boolean[OTHER + 1];
+        for (char character = 0; character < OTHER; ++character) {
+            result[character] = predicate.test(character);
+        }
+
+        result[OTHER] = true;
+        return result;
+    }
+
+    /**
+     * The first set of a parser nothing is known about.
+     */
+    public static final First ANY =
+            new First(characters((Character x) -> true), true, (CharSequence input, int position) -> position, false);
+
+    public static final First NONE =
+            new First(new boolean[OTHER + 1], false, (CharSequence input, int position) -> -1, true);
+
+
+    private final boolean[] characters;
+    private final boolean nullable;
+    private final Lookahead lookahead;
+    private final boolean exact;
+
+    private First(boolean[] characters, boolean nullable, Lookahead lookahead, boolean exact) {
+        this.characters = characters;
+        this.nullable = nullable;
+        this.lookahead = lookahead;
+        this.exact = exact;
+    }
+
+    public boolean mayStartWith(char character) {
+        return characters[Math.min(character, OTHER)];
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public int lookahead(CharSequence input, int position) {
+        return lookahead.match(input, position);
+    }
+
+
+    static First character(Predicate<Character> predicate) {
+        return new First(characters(predicate), false, (CharSequence input, int position) ->
+                position < input.length() && predicate.test(input.charAt(position)) ? position + 1 : -1, true);
+    }
+
+    static First string(String string) {
+        if (string.isEmpty()) {
+            return ANY;
+        }
+
+        boolean[] characters = new boolean[OTHER + 1];
+        characters[Math.min(string.charAt(0), OTHER)] = true;
+
+        return new First(characters, false, (CharSequence input, int position) -> {
+            if (input.length() - position < string.length()) {
+                return -1;
+            }
+
+            for (int index = 0; index < string.length(); ++index) {
+                if (input.charAt(position + index) != string.charAt(index)) {
+                    return -1;
+                }
+            }
+
+            return position + string.length();
+        }, true);
+    }
+
+    /**
+     * Returns the first set of a pattern anchored with `^`: a character may start a match if the pattern matches it
+     * or needs more input after it.
+     */
+    static First pattern(Pattern pattern) {
+        if (!pattern.pattern().startsWith("^") || pattern.matcher("").find()) {
+            return ANY;
+        }
+
+        boolean[] characters = characters((Character x) -> {
+            Matcher matcher = pattern.matcher(x.toString());
+            return matcher.find() || matcher.hitEnd();
+        });
+
+        return new First(characters, false, (CharSequence input, int position) ->
+                position < input.length() && characters[Math.min(input.charAt(position), OTHER)] ? position : -1, false);
+    }
+
+    static First optional(First first) {
+        if (!first.exact || first.nullable) {
+            return ANY;
+        }
+
+        return new First(characters((Character x) -> true), true, (CharSequence input, int position) -> {
+            int result = first.lookahead.match(input, position);
+            return result < 0 ? position : result;
+        }, true);
+    }
+
+    /**
+     * Returns a first set checking what the parser starts with only.
+     */
+    static First leading(First first) {
+        return new First(first.characters, first.nullable, first.lookahead, false);
+    }
+
+    static First repeated(First first, boolean atLeastOnce) {
+        if (first.nullable) {
+            return ANY;
+        }
+
+        if (!first.exact) {
+            return atLeastOnce ? new First(first.characters, false, first.lookahead, false) : ANY;
+        }
+
+        return new First(first.characters, !atLeastOnce, (CharSequence input, int position) -> {
+            int result = first.lookahead.match(input, position);
+            if (result < 0) {
+                return atLeastOnce ? -1 : position;
+            }
+
+            for (int next; (next = first.lookahead.match(input, result)) >= 0; ) {
+                result = next;
+            }
+
+            return result;
+        }, true);
+    }
+
+    /**
+     * Returns the first set of the parsers applied one after another.
+     */
+    static First sequence(List<First> firsts) {
+        boolean[] characters = new boolean[OTHER + 1];
+        boolean nullable = true;
+        boolean exact = true;
+        for (First first : firsts) {
+            if (nullable) {
+                for (int index = 0; index <= OTHER; ++index) {
+                    characters[index] |= first.characters[index];
+                }
+            }
+
+            nullable &= first.nullable;
+            exact &= first.exact;
+        }
+
+        return new First(characters, nullable, (CharSequence input, int position) -> {
+            for (First first : firsts) {
+                int next = first.lookahead.match(input, position);
+                if (next < 0 || !first.exact) {
+                    return next;
+                }
+
+                position = next;
+            }
+
+            return position;
+        }, exact);
+    }
+
+    /**
+     * Returns the first set of alternative parsers.
+     */
+    static First alternatives(List<First> firsts) {
+        boolean[] characters = new boolean[OTHER + 1];
+        boolean nullable = false;
+        for (First first : firsts) {
+            for (int index = 0; index <= OTHER; ++index) {
+                characters[index] |= first.characters[index];
+            }
+
+            nullable |= first.nullable;
+        }
+
+        return new First(characters, nullable, (CharSequence input, int position) -> {
+            for (First first : firsts) {
+                if (first.lookahead.match(input, position) >= 0) {
+                    return position;
+                }
+            }
+
+            return -1;
+        }, false);
+    }
+}
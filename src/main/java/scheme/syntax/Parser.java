@@ -2,12 +2,27 @@ package scheme.syntax;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * A parser of the input from a position on. Parsers never copy the input: they pass it on together
+ * with the position the next parser is to start from.
+ */
 @FunctionalInterface
 public interface Parser<X> {
-    Result<X> apply(String input);
+    Result<X> apply(CharSequence input, int position);
+
+    default Result<X> apply(CharSequence input) {
+        return apply(input, 0);
+    }
+
+    /**
+     * Returns what the input must start with for the parser to succeed.
+     */
+    default First first() {
+        return First.ANY;
+    }
 
     final class Reference<X> extends AtomicReference<Parser<X>> {
-        private final Parser<X> lazy = (String input) -> deref().apply(input);
+        private final Parser<X> lazy = (CharSequence input, int position) -> deref().apply(input, position);
 
         private Parser<X> deref() {
             return get();
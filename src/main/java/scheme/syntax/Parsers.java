@@ -2,49 +2,93 @@ package scheme.syntax;
 
 import scheme.Strings;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 
 public final class Parsers {
+    /**
+     * The number of characters {@link #anyOf} tabulates the alternatives for, the others sharing one entry.
+     */
+    private static final int DISPATCHED = 128;
+
+    /**
+     * A parser together with its first set.
+     */
+    private static final class Described<X> implements Parser<X> {
+        private final First first;
+        private final Parser<X> parser;
+
+        private Described(First first, Parser<X> parser) {
+            this.first = first;
+            this.parser = parser;
+        }
+
+        @Override
+        public Result<X> apply(CharSequence input, int position) {
+            return parser.apply(input, position);
+        }
+
+        @Override
+        public First first() {
+            return first;
+        }
+    }
+
+    private static <X> Parser<X> described(First first, Parser<X> parser) {
+        return new Described<>(first, parser);
+    }
+
+    private static List<First> firsts(List<? extends Parser<?>> parsers) {
+        List<First> result = new ArrayList<>(parsers.size());
+        for (Parser<?> parser : parsers) {
+            result.add(parser.first());
+        }
+
+        return result;
+    }
 
 
     // Primitives
 
     public static <X> Parser<X> unexpected() {
-        return (String input) -> Result.failure(input, "Unexpected");
+        return described(First.NONE, (CharSequence input, int position) -> Result.failure(input, position, "Unexpected"));
     }
 
 
     public static Parser<Character> character(char character) {
-        return (String input) -> {
-            if (input.isEmpty()) {
-                return Result.failure(input, String.format("Unexpected: `%s`", "EOF"));
+        return described(First.character((Character x) -> x == character), (CharSequence input, int position) -> {
+            if (position == input.length()) {
+                return Result.failure(input, position, String.format("Unexpected: `%s`", "EOF"));
             }
 
-            char x = input.charAt(0);
+            char x = input.charAt(position);
             return character == x
-                    ? Result.success(input.substring(1), character)
-                    : Result.failure(input, String.format("Expected: `%s`, Actual: `%s`", character, x));
-        };
+                    ? Result.success(input, position + 1, character)
+                    : Result.failure(input, position, String.format("Expected: `%s`, Actual: `%s`", character, x));
+        });
     }
 
     public static Parser<Character> characterSatisfying(Predicate<Character> predicate) {
-        return (String input) -> {
-            if (input.isEmpty()) {
-                return Result.failure(input, String.format("Unexpected: `%s`", "EOF"));
+        return described(First.character(predicate), (CharSequence input, int position) -> {
+            if (position == input.length()) {
+                return Result.failure(input, position, String.format("Unexpected: `%s`", "EOF"));
             }
 
-            char x = input.charAt(0);
+            char x = input.charAt(position);
             return predicate.test(x)
-                    ? Result.success(input.substring(1), x)
-                    : Result.failure(input, String.format("Unexpected: `%s`", x));
-        };
+                    ? Result.success(input, position + 1, x)
+                    : Result.failure(input, position, String.format("Unexpected: `%s`", x));
+        });
     }
 
 
@@ -61,26 +105,40 @@ public final class Parsers {
     }
 
     public static Parser<Character> characterOf(String characters) {
-        return characterSatisfying((Character x) -> characters.contains(x.toString()));
+        return characterSatisfying((Character x) -> characters.indexOf(x) >= 0);
     }
 
     public static Parser<Character> characterExcept(String characters) {
-        return characterSatisfying((Character x) -> !characters.contains(x.toString()));
+        return characterSatisfying((Character x) -> characters.indexOf(x) < 0);
     }
 
 
+    private static boolean startsWith(CharSequence input, int position, String string) {
+        if (input.length() - position < string.length()) {
+            return false;
+        }
+
+        for (int index = 0; index < string.length(); ++index) {
+            if (input.charAt(position + index) != string.charAt(index)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static Parser<String> string(String string) {
-        return (String input) -> {
-            if (input.isEmpty()) {
-                return Result.failure(input, "Unexpected: `EOF`");
+        return described(First.string(string), (CharSequence input, int position) -> {
+            if (position == input.length()) {
+                return Result.failure(input, position, "Unexpected: `EOF`");
             }
 
-            if (input.startsWith(string)) {
-                return Result.success(input.substring(string.length()), string);
+            if (startsWith(input, position, string)) {
+                return Result.success(input, position + string.length(), string);
             }
 
-            return Result.failure(input, String.format("Expected: `%s`", string));
-        };
+            return Result.failure(input, position, String.format("Expected: `%s`", string));
+        });
     }
 
     public static Parser<String> whitespaces() {
@@ -96,19 +154,22 @@ public final class Parsers {
     }
 
 
+    /**
+     * Matches the pattern in the region of the input from the position on, so that `^` anchors it at the position.
+     */
     public static Parser<String> pattern(Pattern pattern) {
-        return (String input) -> {
-            if (input.isEmpty()) {
-                return Result.failure(input, "Unexpected: `EOF`");
+        return described(First.pattern(pattern), (CharSequence input, int position) -> {
+            if (position == input.length()) {
+                return Result.failure(input, position, "Unexpected: `EOF`");
             }
 
-            Matcher matcher = pattern.matcher(input);
+            Matcher matcher = pattern.matcher(input).region(position, input.length());
             if (matcher.find()) {
-                return Result.success(input.substring(matcher.end()), matcher.group());
+                return Result.success(input, matcher.end(), matcher.group());
             }
 
-            return Result.failure(input, String.format("Expected: `%s`", pattern));
-        };
+            return Result.failure(input, position, String.format("Expected: `%s`", pattern));
+        });
     }
 
 
@@ -124,61 +185,85 @@ public final class Parsers {
 
 
     public static <X> Parser<X> named(String name, Parser<X> parser) {
-        return (String input) -> {
-            Result<X> result = parser.apply(input);
+        return described(parser.first(), (CharSequence input, int position) -> {
+            Result<X> result = parser.apply(input, position);
             if (result.isSuccess()) {
                 return result;
             }
 
-            return Result.failure(result.remaining(), String.format("`%s`. %s", name, result.error()));
-        };
+            return Result.failure(input, result.position(), String.format("`%s`. %s", name, result.error()));
+        });
     }
 
 
     @SafeVarargs
     public static <X> Parser<List<X>> allOf(Parser<X> first, Parser<X>... rest) {
-        return (String input) -> {
+        List<Parser<X>> parsers = cons(first, asList(rest));
+        return described(First.sequence(firsts(parsers)), (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
-            for (Parser<X> parser : cons(first, asList(rest))) {
-                Result<X> result = parser.apply(input);
+            int remaining = position;
+            for (Parser<X> parser : parsers) {
+                Result<X> result = parser.apply(input, remaining);
                 if (result.isFailure()) {
-                    return Result.failure(input, result.error());
+                    return Result.failure(input, position, result.error());
                 }
 
                 parsed.add(result.value());
-                input = result.remaining();
+                remaining = result.position();
             }
 
-            return Result.success(input, parsed);
-        };
+            return Result.success(input, remaining, parsed);
+        });
     }
 
 
+    /**
+     * Returns a parser trying the alternatives in order. The alternatives that may start with a character
+     * are tabulated beforehand, and an alternative is only applied where its lookahead does not rule it out.
+     */
     @SafeVarargs
     public static <X> Parser<X> anyOf(Parser<X> first, Parser<X>... rest) {
-        return (String input) -> {
-            for (Parser<X> parser : cons(first, asList(rest))) {
-                Result<X> result = parser.apply(input);
+        List<Parser<X>> parsers = cons(first, asList(rest));
+        List<First> firsts = firsts(parsers);
+
+        int[][] candidates = new int[DISPATCHED + 2][];
+        for (int index = 0; index < candidates.length; ++index) {
+            char character = (char) index;
+            boolean end = index == DISPATCHED + 1;
+            candidates[index] = IntStream.range(0, parsers.size())
+                    .filter((int alternative) -> firsts.get(alternative).isNullable()
+                            || !end && firsts.get(alternative).mayStartWith(character))
+                    .toArray();
+        }
+
+        return described(First.alternatives(firsts), (CharSequence input, int position) -> {
+            int dispatch = position == input.length() ? DISPATCHED + 1 : Math.min(input.charAt(position), DISPATCHED);
+            for (int alternative : candidates[dispatch]) {
+                if (firsts.get(alternative).lookahead(input, position) < 0) {
+                    continue;
+                }
+
+                Result<X> result = parsers.get(alternative).apply(input, position);
                 if (result.isSuccess()) {
                     return result;
                 }
             }
 
-            return Result.failure(input, "Nothing"); // FIXME
-        };
+            return Result.failure(input, position, "Nothing"); // FIXME
+        });
     }
 
 
     public static <X, F> Parser<F> as(Function<X, F> function, Parser<X> parser) {
-        return (String input) -> {
-            Result<X> result = parser.apply(input);
+        return described(parser.first(), (CharSequence input, int position) -> {
+            Result<X> result = parser.apply(input, position);
             if (result.isSuccess()) {
-                return Result.success(result.remaining(), function.apply(result.value()));
+                return Result.success(input, result.position(), function.apply(result.value()));
             }
 
-            return Result.failure(input, result.error());
-        };
+            return Result.failure(input, position, result.error());
+        });
     }
 
     public static Parser<String> asString(Parser<List<Character>> parser) {
@@ -189,195 +274,206 @@ public final class Parsers {
     @SafeVarargs
     public static <X, S> Parser<List<X>> separatedBy(Parser<S> separator, Parser<X> first, Parser<X>... rest) {
         List<Parser<X>> parsers = cons(first, asList(rest));
-        return (String input) -> {
+
+        List<First> firsts = new ArrayList<>();
+        for (Parser<X> parser : parsers) {
+            if (!firsts.isEmpty()) {
+                firsts.add(separator.first());
+            }
+
+            firsts.add(parser.first());
+        }
+
+        return described(First.sequence(firsts), (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
-            String remaining = input;
+            int remaining = position;
             for (int index = 0; index < parsers.size() - 1; index++) {
                 Parser<X> parser = parsers.get(index);
 
-                Result<X> result = parser.apply(remaining);
+                Result<X> result = parser.apply(input, remaining);
                 if (result.isFailure()) {
-                    return Result.failure(input, result.error());
+                    return Result.failure(input, position, result.error());
                 }
 
-                Result<S> ignore = separator.apply(result.remaining());
+                Result<S> ignore = separator.apply(input, result.position());
                 if (ignore.isFailure()) {
-                    return Result.failure(input, ignore.error());
+                    return Result.failure(input, position, ignore.error());
                 }
 
                 parsed.add(result.value());
-                remaining = ignore.remaining();
+                remaining = ignore.position();
             }
 
-            Result<X> result = parsers.get(parsers.size() - 1).apply(remaining);
+            Result<X> result = parsers.get(parsers.size() - 1).apply(input, remaining);
             if (result.isSuccess()) {
                 parsed.add(result.value());
-                return Result.success(result.remaining(), parsed);
+                return Result.success(input, result.position(), parsed);
             }
 
-            return Result.failure(input, result.error());
-        };
+            return Result.failure(input, position, result.error());
+        });
     }
 
 
     public static <X> Parser<Void> ignore(Parser<X> parser) {
-        return (String input) -> {
-            Result<X> ignore = parser.apply(input);
+        return described(parser.first(), (CharSequence input, int position) -> {
+            Result<X> ignore = parser.apply(input, position);
             if (ignore.isFailure()) {
-                return Result.failure(input, ignore.error());
+                return Result.failure(input, position, ignore.error());
             }
 
-            return Result.success(ignore.remaining(), null);
-        };
+            return Result.success(input, ignore.position(), null);
+        });
     }
 
 
     public static <X> Parser<X> optional(Parser<X> parser) { // FIXME
-        return (String input) -> {
-            Result<X> result = parser.apply(input);
+        return described(First.optional(parser.first()), (CharSequence input, int position) -> {
+            Result<X> result = parser.apply(input, position);
             if (result.isSuccess()) {
                 return result;
             }
 
-            return Result.success(input, null);
-        };
+            return Result.success(input, position, null);
+        });
     }
 
 
     public static <X> Parser<List<X>> zeroOrMore(Parser<X> parser) {
-        return (String input) -> {
+        return described(First.repeated(parser.first(), false), (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
             Result<X> result;
-            while ((result = parser.apply(input)).isSuccess()) {
+            while ((result = parser.apply(input, position)).isSuccess()) {
                 parsed.add(result.value());
-                input = result.remaining();
+                position = result.position();
             }
 
-            return Result.success(input, parsed);
-        };
+            return Result.success(input, position, parsed);
+        });
     }
 
     public static <X, S> Parser<List<X>> zeroOrMoreSeparatedBy(Parser<S> separator, Parser<X> parser) {
-        return (String input) -> {
+        return (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
             Result<X> result;
-            String remaining = input;
-            while ((result = parser.apply(remaining)).isSuccess()) {
+            int remaining = position;
+            while ((result = parser.apply(input, remaining)).isSuccess()) {
                 parsed.add(result.value());
-                input = result.remaining();
+                position = result.position();
 
-                Result<S> ignore = separator.apply(input);
+                Result<S> ignore = separator.apply(input, position);
                 if (ignore.isFailure()) {
-                    return Result.success(input, parsed);
+                    return Result.success(input, position, parsed);
                 }
 
-                remaining = ignore.remaining();
+                remaining = ignore.position();
             }
 
-            return Result.success(input, parsed);
+            return Result.success(input, position, parsed);
         };
     }
 
 
     public static <X> Parser<List<X>> oneOrMore(Parser<X> parser) {
-        return (String input) -> {
+        return described(First.repeated(parser.first(), true), (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
-            Result<X> result = parser.apply(input);
+            Result<X> result = parser.apply(input, position);
             if (result.isFailure()) {
-                return Result.failure(input, result.error());
+                return Result.failure(input, position, result.error());
             }
 
             do {
                 parsed.add(result.value());
-                input = result.remaining();
-            } while ((result = parser.apply(input)).isSuccess());
+                position = result.position();
+            } while ((result = parser.apply(input, position)).isSuccess());
 
-            return Result.success(input, parsed);
-        };
+            return Result.success(input, position, parsed);
+        });
     }
 
     public static <X, S> Parser<List<X>> oneOrMoreSeparatedBy(Parser<S> separator, Parser<X> parser) {
-        return (String input) -> {
+        return described(First.leading(parser.first()), (CharSequence input, int position) -> {
             List<X> parsed = new LinkedList<>();
 
-            Result<X> result = parser.apply(input);
+            Result<X> result = parser.apply(input, position);
             if (result.isFailure()) {
-                return Result.failure(input, result.error());
+                return Result.failure(input, position, result.error());
             }
 
-            String remaining = result.remaining();
+            int remaining;
             do {
                 parsed.add(result.value());
-                input = result.remaining();
+                position = result.position();
 
-                Result<S> ignore = separator.apply(result.remaining());
+                Result<S> ignore = separator.apply(input, position);
                 if (ignore.isFailure()) {
                     break;
                 }
 
-                remaining = ignore.remaining();
-            } while ((result = parser.apply(remaining)).isSuccess());
+                remaining = ignore.position();
+            } while ((result = parser.apply(input, remaining)).isSuccess());
 
-            return Result.success(input, parsed);
-        };
+            return Result.success(input, position, parsed);
+        });
     }
 
 
     public static <X, A> Parser<X> before(Parser<X> before, Parser<A> parser) {
-        return (String input) -> {
-            Result<X> result = before.apply(input);
+        return described(First.sequence(asList(before.first(), parser.first())), (CharSequence input, int position) -> {
+            Result<X> result = before.apply(input, position);
             if (result.isFailure()) {
-                return Result.failure(input, result.error());
+                return Result.failure(input, position, result.error());
             }
 
-            Result<A> ignore = parser.apply(result.remaining());
+            Result<A> ignore = parser.apply(input, result.position());
             if (ignore.isFailure()) {
-                return Result.failure(input, ignore.error());
+                return Result.failure(input, position, ignore.error());
             }
 
-            return Result.success(ignore.remaining(), result.value());
-        };
+            return Result.success(input, ignore.position(), result.value());
+        });
     }
 
     public static <B, X, A> Parser<X> between(Parser<B> before, Parser<X> between, Parser<A> after) {
-        return (String input) -> {
-            Result<B> ignoreBefore = before.apply(input);
+        First first = First.sequence(asList(before.first(), between.first(), after.first()));
+        return described(first, (CharSequence input, int position) -> {
+            Result<B> ignoreBefore = before.apply(input, position);
             if (ignoreBefore.isFailure()) {
-                return Result.failure(input, ignoreBefore.error());
+                return Result.failure(input, position, ignoreBefore.error());
             }
 
-            Result<X> result = between.apply(ignoreBefore.remaining());
+            Result<X> result = between.apply(input, ignoreBefore.position());
             if (result.isFailure()) {
-                return Result.failure(input, result.error());
+                return Result.failure(input, position, result.error());
             }
 
-            Result<A> ignoreAfter = after.apply(result.remaining());
+            Result<A> ignoreAfter = after.apply(input, result.position());
             if (ignoreAfter.isFailure()) {
-                return Result.failure(input, ignoreAfter.error());
+                return Result.failure(input, position, ignoreAfter.error());
             }
 
-            return Result.success(ignoreAfter.remaining(), result.value());
-        };
+            return Result.success(input, ignoreAfter.position(), result.value());
+        });
     }
 
     public static <B, X> Parser<X> after(Parser<B> parser, Parser<X> after) {
-        return (String input) -> {
-            Result<B> ignore = parser.apply(input);
+        return described(First.sequence(asList(parser.first(), after.first())), (CharSequence input, int position) -> {
+            Result<B> ignore = parser.apply(input, position);
             if (ignore.isFailure()) {
-                return Result.failure(input, ignore.error());
+                return Result.failure(input, position, ignore.error());
             }
 
-            Result<X> result = after.apply(ignore.remaining());
+            Result<X> result = after.apply(input, ignore.position());
             if (result.isFailure()) {
-                return Result.failure(input, result.error());
+                return Result.failure(input, position, result.error());
             }
 
-            return Result.success(result.remaining(), result.value());
-        };
+            return Result.success(input, result.position(), result.value());
+        });
     }
 
 
@@ -386,32 +482,112 @@ public final class Parsers {
             private final Parser<X> recursive = anyOf(this, parser);
 
             @Override
-            public Result<X> apply(String input) {
-                Result<X> result = recursive.apply(input);
+            public Result<X> apply(CharSequence input, int position) {
+                Result<X> result = recursive.apply(input, position);
                 if (result.isSuccess()) {
                     return result;
                 }
 
-                Result<B> rb = before.apply(input);
+                Result<B> rb = before.apply(input, position);
                 if (rb.isFailure()) {
-                    return Result.failure(input, rb.error());
+                    return Result.failure(input, position, rb.error());
                 }
 
-                Result<X> rr = recursive.apply(rb.remaining());
+                Result<X> rr = recursive.apply(input, rb.position());
                 if (rr.isFailure()) {
-                    return Result.failure(input, rr.error());
+                    return Result.failure(input, position, rr.error());
                 }
 
-                Result<A> ra = after.apply(rr.remaining());
+                Result<A> ra = after.apply(input, rr.position());
                 if (ra.isFailure()) {
-                    return Result.failure(input, ra.error());
+                    return Result.failure(input, position, ra.error());
                 }
 
-                return Result.success(ra.remaining(), rr.value());
+                return Result.success(input, ra.position(), rr.value());
             }
         };
     }
 
+    /**
+     * The memo tables of the packrat parse under way on the thread, if any.
+     */
+    private static final ThreadLocal<Memo> MEMOS = new ThreadLocal<>();
+
+    /**
+     * Returns a parser that parses with the results of {@link #memoized} parsers remembered (a packrat parser).
+     * The remembered results belong to a single application of the parser and are dropped when it returns,
+     * so they are never shared between inputs or between parses of the same input.
+     */
+    public static <X> Parser<X> packrat(Parser<X> parser) {
+        return described(parser.first(), (CharSequence input, int position) -> {
+            Memo previous = MEMOS.get();
+            MEMOS.set(new Memo(input));
+            try {
+                return parser.apply(input, position);
+            } finally {
+                if (previous == null) {
+                    MEMOS.remove();
+                } else {
+                    MEMOS.set(previous);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a parser that remembers the results of the parser at each position of the input within
+     * a {@link #packrat} parse, so that alternatives failing after a common prefix do not parse the prefix again.
+     * Outside a packrat parse it parses as the parser does. The input must not change while it is being parsed.
+     */
+    public static <X> Parser<X> memoized(Parser<X> parser) {
+        return described(parser.first(), (CharSequence input, int position) -> {
+            Memo memo = MEMOS.get();
+            if (memo == null || memo.input != input) {
+                return parser.apply(input, position);
+            }
+
+            Memo.Entry<?>[] entries = memo.entries(parser);
+
+            @SuppressWarnings("unchecked")
+            Memo.Entry<X> entry = (Memo.Entry<X>) entries[position];
+            if (entry == null) {
+                Result<X> result = parser.apply(input, position);
+                entries[position] = new Memo.Entry<>(result.position(), result.value(), result.error());
+                return result;
+            }
+
+            return entry.error == null
+                    ? Result.success(input, entry.position, entry.value)
+                    : Result.failure(input, entry.position, entry.error);
+        });
+    }
+
+    private static final class Memo {
+        private static final class Entry<X> {
+            private final int position;
+            private final X value;
+            private final String error;
+
+            private Entry(int position, X value, String error) {
+                this.position = position;
+                this.value = value;
+                this.error = error;
+            }
+        }
+
+        private final CharSequence input;
+        private final Map<Parser<?>, Entry<?>[]> entries = new IdentityHashMap<>();
+
+        private Memo(CharSequence input) {
+            this.input = input;
+        }
+
+        private Entry<?>[] entries(Parser<?> parser) {
+            return entries.computeIfAbsent(parser, (Parser<?> key) -> new Entry<?>[input.length() + 1]);
+        }
+    }
+
+
     public static <X> Parser<X> parenthesised(Parser<X> parser) {
         return between(string("("), parser, string(")"));
     }
@@ -1,29 +1,43 @@
 package scheme.syntax;
 
+/**
+ * The result of applying a parser at a position of an input. The input is shared by all the results
+ * of a parse, which only record the position that parsing continues from.
+ */
 public final class Result<X> {
-    public static <X> Result<X> success(String remaining, X value) {
-        return new Result<>(remaining, value);
+    public static <X> Result<X> success(CharSequence input, int position, X value) {
+        return new Result<>(input, position, value, null);
     }
 
-    public static <X> Result<X> failure(String remaining, String message) {
-        return new Result<>(remaining, null, message);
+    public static <X> Result<X> failure(CharSequence input, int position, String message) {
+        return new Result<>(input, position, null, message);
     }
 
 
-    private final String remaining;
+    private final CharSequence input;
+    private final int position;
 
     private final X value;
     private final String error;
 
 
-    private Result(String remaining, X value, String... error) {
-        this.remaining = remaining;
+    private Result(CharSequence input, int position, X value, String error) {
+        this.input = input;
+        this.position = position;
         this.value = value;
-        this.error = error.length == 0 ? null : error[0];
+        this.error = error;
+    }
+
+    public CharSequence input() {
+        return input;
+    }
+
+    public int position() {
+        return position;
     }
 
     public String remaining() {
-        return remaining;
+        return input.subSequence(position, input.length()).toString();
     }
 
     public X value() {
@@ -45,9 +59,9 @@ public final class Result<X> {
     @Override
     public String toString() {
         if (error == null) {
-            return String.format("Success: `%s` (Remaining: `%s`)", value, remaining);
+            return String.format("Success: `%s` (Remaining: `%s`)", value, remaining());
         }
 
-        return String.format("Failure: %s (Remaining: `%s`)", error, remaining);
+        return String.format("Failure: %s (Remaining: `%s`)", error, remaining());
     }
 }
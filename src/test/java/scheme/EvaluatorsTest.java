@@ -0,0 +1,249 @@
+package scheme;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EvaluatorsTest {
+    private static final Evaluator[] EVALUATORS = {
+            Evaluators.TREE_WALKING,
+            Evaluators.ANALYZING,
+            new ExplicitControlEvaluator(),
+            Evaluators.BYTECODE
+    };
+
+    private static String evalProgram(Evaluator evaluator, String program) {
+        Environment environment = new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+
+        List<Expression> expressions = Syntax.PROGRAM.apply(program).value();
+
+        Expression result = Core.UNIT;
+        for (Expression expression : expressions) {
+            result = evaluator.eval(expression, environment);
+        }
+
+        return result.toString();
+    }
+
+    private static void assertEvaluated(String program, String expected) {
+        for (Evaluator evaluator : EVALUATORS) {
+            assertThat(program, evalProgram(evaluator, program), is(expected));
+        }
+    }
+
+
+    @Test
+    public void shouldEvaluateSelfEvaluating() throws Exception {
+        assertEvaluated("42", "42");
+        assertEvaluated("42.0", "42.0");
+        assertEvaluated("\"x\"", "\"x\"");
+        assertEvaluated("()", "()");
+        assertEvaluated("'(0 1 2)", "(0 1 2)");
+    }
+
+    @Test
+    public void shouldEvaluateDefinitionAndAssignment() throws Exception {
+        assertEvaluated("(define x 42) x", "42");
+        assertEvaluated("(define x 42) (set! x 0) x", "0");
+    }
+
+    @Test
+    public void shouldEvaluateConditionals() throws Exception {
+        assertEvaluated("(if (< 0 1) 'yes 'no)", "yes");
+        assertEvaluated("(if (< 1 0) 'yes 'no)", "no");
+        assertEvaluated("(define x 1) (cond ((< x 0) 'negative) ((= x 0) 'zero) (else 'positive))", "positive");
+        assertEvaluated("(cond ((< 1 0) 'never))", "false");
+    }
+
+    @Test
+    public void shouldEvaluateLet() throws Exception {
+        assertEvaluated("(let ((x 1) (y 2)) (set! x 40) (+ x y))", "42");
+        assertEvaluated("(define x 1) (let ((x 2) (y x)) y)", "1");
+    }
+
+    @Test
+    public void shouldEvaluateProcedures() throws Exception {
+        assertEvaluated("(define (factorial n) (if (< n 2) 1 (* n (factorial (- n 1))))) (factorial 10)", "3628800");
+        assertEvaluated("(define (adder n) (lambda (x) (+ x n))) ((adder 40) 2)", "42");
+        assertEvaluated("(define (f) (define x 40) (define (g) (+ x 2)) (g)) (f)", "42");
+        assertEvaluated("(define counter (let ((n 0)) (lambda () (set! n (+ n 1)) n))) (counter) (counter)", "2");
+    }
+
+    @Test
+    public void shouldResolveLexicalScopes() throws Exception {
+        assertEvaluated("(define x 'global) (define (f x) (lambda () x)) ((f 'local))", "local");
+        assertEvaluated("(define x 'global) (define (f) x) (let ((x 'local)) (f))", "global");
+        assertEvaluated("(define (f n) (define (even? n) (if (= n 0) true (odd? (- n 1)))) " +
+                "(define (odd? n) (if (= n 0) false (even? (- n 1)))) (even? n)) (f 10)", "true");
+        assertEvaluated("(define (f x) (let ((y 1)) (lambda () (set! x (+ x y)) x))) (define g (f 40)) (g) (g)", "42");
+        assertEvaluated("(define x 0) (define (f) (set! x 42)) (f) x", "42");
+    }
+
+    @Test
+    public void shouldEvaluateTailCallsInConstantSpace() throws Exception {
+        assertEvaluated("(define (loop n) (if (= n 0) 'done (loop (- n 1)))) (loop 100000)", "done");
+        assertEvaluated("(define (loop n) (cond ((= n 0) 'done) (else (begin (loop (- n 1)))))) (loop 100000)", "done");
+        assertEvaluated("(define (loop n) (let ((m (- n 1))) (if (< m 0) 'done (loop m)))) (loop 100000)", "done");
+        assertEvaluated("(define (loop n) (if (= n 0) 'done (apply loop (list (- n 1))))) (loop 100000)", "done");
+        assertEvaluated("(define (even? n) (if (= n 0) true (odd? (- n 1)))) " +
+                "(define (odd? n) (if (= n 0) false (even? (- n 1)))) (even? 100001)", "false");
+    }
+
+    @Test
+    public void shouldEvaluateDeepRecursionOnTheHeap() throws Exception {
+        ExplicitControlEvaluator evaluator = new ExplicitControlEvaluator();
+
+        assertThat(
+                evalProgram(evaluator, "(define (count n) (if (= n 0) 0 (+ 1 (count (- n 1))))) (count 200000)"),
+                is("200000"));
+        assertThat(evaluator.maximumDepth() > 200000, is(true));
+
+        assertThat(
+                evalProgram(evaluator, "(define (f n) (if (= n 0) 0 (+ 1 (apply f (list (- n 1)))))) (f 100000)"),
+                is("100000"));
+    }
+
+    @Test
+    public void shouldCountStackOperations() throws Exception {
+        ExplicitControlEvaluator evaluator = new ExplicitControlEvaluator();
+
+        evalProgram(evaluator, "(define (loop n) (if (= n 0) 'done (loop (- n 1)))) (loop 10)");
+        int depth = evaluator.maximumDepth();
+        long pushes = evaluator.totalPushes();
+
+        evalProgram(evaluator, "(define (loop n) (if (= n 0) 'done (loop (- n 1)))) (loop 1000)");
+        assertThat(evaluator.maximumDepth(), is(depth));
+        assertThat(evaluator.totalPushes() > pushes, is(true));
+    }
+
+    @Test
+    public void shouldEvaluateLists() throws Exception {
+        assertEvaluated("(define (map f xs) (if (null? xs) '() (cons (f (car xs)) (map f (cdr xs))))) " +
+                "(map (lambda (x) (* x x)) '(1 2 3))", "(1 4 9)");
+    }
+
+    @Test
+    public void shouldShareTailsInCons() throws Exception {
+        assertEvaluated("(define xs '(2 3)) (define ys (cons 1 xs)) (set-car! xs 5) ys", "(1 5 3)");
+        assertEvaluated("(define a (list 1 2)) (set-cdr! a 3) (list (cdr a) a (list? a))", "(3 (1 . 3) false)");
+        assertEvaluated("(define a (list 1 2)) (define b (cons 0 a)) (set-cdr! (cdr a) (list 5)) (list (length b) b)",
+                "(4 (0 1 2 5))");
+        assertEvaluated("(define p (cons 1 2)) (set-cdr! p (list 3 4)) (list (list? p) (apply + p) p)",
+                "(true 8 (1 3 4))");
+        assertEvaluated("(define a (list 1 2)) (set-cdr! (cdr a) a) (list? a)", "false");
+        assertEvaluated("(define xs '(2 3)) (eq? (cdr (cons 1 xs)) xs)", "true");
+        assertEvaluated("(cons 1 2)", "(1 . 2)");
+    }
+
+    @Test
+    public void shouldBuildLongListsWithCons() throws Exception {
+        assertEvaluated("(define (build n xs) (if (= n 0) xs (build (- n 1) (cons n xs)))) (length (build 100000 '()))",
+                "100000");
+    }
+
+    @Test
+    public void shouldComputeExactly() throws Exception {
+        assertEvaluated("(define (fact n) (if (= n 0) 1 (* n (fact (- n 1))))) (fact 25)", "15511210043330985984000000");
+        assertEvaluated("(+ 9223372036854775807 1)", "9223372036854775808");
+        assertEvaluated("(- (+ 9223372036854775807 1) 1)", "9223372036854775807");
+        assertEvaluated("(- (- 0 9223372036854775807 1))", "9223372036854775808");
+        assertEvaluated("(/ 6 3)", "2");
+        assertEvaluated("(/ 1 3)", "1/3");
+        assertEvaluated("(+ (/ 1 3) (/ 2 3))", "1");
+        assertEvaluated("(* (/ 1 10) 3)", "3/10");
+        assertEvaluated("(/ 4)", "1/4");
+        assertEvaluated("(< (/ 1 3) (/ 1 2))", "true");
+        assertEvaluated("(= (/ 2 4) (/ 1 2))", "true");
+        assertEvaluated("(+ (/ 1 2) 0.25)", "0.75");
+        assertEvaluated("(/ 1.0 4)", "0.25");
+    }
+
+    @Test
+    public void shouldDivideIntegers() throws Exception {
+        assertEvaluated("(/ 6 3)", "2");
+        assertEvaluated("(/ (- 0 12) 4)", "-3");
+        assertEvaluated("(/ 0 7)", "0");
+        assertEvaluated("(/ 7 2)", "7/2");
+        assertEvaluated("(/ (- 0 6) 4)", "-3/2");
+        assertEvaluated("(/ (- 0 9223372036854775807 1) (- 0 1))", "9223372036854775808");
+        assertEvaluated("(/ (- 0 9223372036854775807 1) 2)", "-4611686018427387904");
+    }
+
+    @Test
+    public void shouldEvaluateVectors() throws Exception {
+        assertEvaluated("(define v (make-vector 3 0)) (vector-set! v 1 'x) v", "#(0 x 0)");
+        assertEvaluated("(vector-ref (vector 1 2 3) 2)", "3");
+        assertEvaluated("(vector-length (list->vector '(1 2 3 4)))", "4");
+        assertEvaluated("(vector->list (vector 1 2))", "(1 2)");
+        assertEvaluated("(define v (make-s64vector 2 7)) (s64vector-set! v 0 (+ (s64vector-ref v 1) 1)) v", "#s64(8 7)");
+        assertEvaluated("(f64vector-ref (f64vector 1 2.5) 0)", "1.0");
+        assertEvaluated("(list (vector? (vector)) (vector? '()) (s64vector? (s64vector)) (f64vector? (vector)))",
+                "(true false true false)");
+    }
+
+    @Test
+    public void shouldCompareByEquivalence() throws Exception {
+        assertEvaluated("(list (eq? 'a 'a) (eqv? 2 2) (eqv? 2 2.0) (eqv? \"a\" \"a\"))", "(true true false false)");
+        assertEvaluated("(list (equal? (list 1 (list 2 (vector 3))) (list 1 (list 2 (vector 3)))) (equal? \"a\" \"a\"))", "(true true)");
+        assertEvaluated("(equal? '(1 2) '(1 2 3))", "false");
+    }
+
+    @Test
+    public void shouldEvaluateHashTables() throws Exception {
+        assertEvaluated("(define t (make-eq-hash-table)) (hash-table-set! t 'a 1) (hash-table-set! t 'b 2) " +
+                "(hash-table-update! t 'a (lambda (x) (+ x 10))) " +
+                "(list (hash-table-ref t 'a) (hash-table-ref/default t 'c 0) (hash-table-count t))", "(11 0 2)");
+        assertEvaluated("(define t (make-equal-hash-table)) (hash-table-set! t (list 1 \"x\") 'found) " +
+                "(hash-table-ref t (list 1 \"x\") (lambda () 'missing))", "found");
+        assertEvaluated("(define t (make-hash-table eqv?)) " +
+                "(define (fill n) (if (< n 1000) (begin (hash-table-set! t n (* n n)) (fill (+ n 1))) 'done)) " +
+                "(define (drain n) (if (< n 1000) (begin (hash-table-delete! t n) (drain (+ n 2))) 'done)) " +
+                "(fill 0) (drain 0) (hash-table-update!/default t 'sum (lambda (x) x) 0) " +
+                "(hash-table-walk t (lambda (k v) (if (number? k) (hash-table-update! t 'sum (lambda (s) (+ s v))) 'skip))) " +
+                "(list (hash-table-count t) (hash-table-contains? t 2) (hash-table-ref t 'sum))",
+                "(501 false 166666500)");
+    }
+
+    @Test
+    public void shouldEvaluateRecordTypes() throws Exception {
+        String definition = "(define-record-type point (make-point x y) point? (x point-x) (y point-y set-point-y!)) ";
+        assertEvaluated(definition + "(define p (make-point 1 2)) (set-point-y! p 5) (list (point-x p) (point-y p))", "(1 5)");
+        assertEvaluated(definition + "(list (point? (make-point 1 2)) (point? (vector 1 2)))", "(true false)");
+        assertEvaluated(definition + "(make-point 1 2)", "#[point 1 2]");
+        assertEvaluated("(define-record-type node (make-node value) node? (value node-value) (next node-next)) " +
+                "(node-next (make-node 1))", "false");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectRecordsOfOtherTypes() throws Exception {
+        evalProgram(Evaluators.TREE_WALKING, "(define-record-type a (make-a x) a? (x a-x)) " +
+                "(define-record-type b (make-b x) b? (x b-x)) (a-x (make-b 1))");
+    }
+
+    @Test
+    public void shouldEvaluateStrings() throws Exception {
+        assertEvaluated("(string-append \"foo\" \"-\" \"bar\")", "\"foo-bar\"");
+        assertEvaluated("(define s (substring \"hello world\" 6)) (list s (string-length s) (substring s 1 3))",
+                "(\"world\" 5 \"or\")");
+        assertEvaluated("(list (string-ref \"abc\" 1) (char->integer (string-ref \"abc\" 0)))", "(#\\b 97)");
+        assertEvaluated("(list (string->symbol \"x\") (symbol->string 'y) (number->string 255 16) (number->string 1.5))",
+                "(x \"y\" \"ff\" \"1.5\")");
+        assertEvaluated("(equal? (substring \"abcabc\" 3) \"abc\")", "true");
+    }
+
+    @Test
+    public void shouldWriteToStringPorts() throws Exception {
+        assertEvaluated("(define port (open-output-string)) " +
+                "(define (emit n) (if (= n 0) 'done (begin (display n port) (write-string \",\" port) (emit (- n 1))))) " +
+                "(emit 3) (newline port) (display 'end port) (get-output-string port)", "\"3,2,1,\nend\"");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectIndexOutOfRange() throws Exception {
+        evalProgram(Evaluators.TREE_WALKING, "(vector-ref (vector 1 2) 2)");
+    }
+}
@@ -0,0 +1,52 @@
+package scheme;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class ExpressionReaderTest {
+    private static List<String> read(ExpressionReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (Expression expression; (expression = reader.nextExpression()) != null; ) {
+            result.add(expression.toString());
+        }
+
+        return result;
+    }
+
+    private static List<String> read(String program) throws IOException {
+        return read(new ExpressionReader(new StringReader(program), Syntax.PROGRAM));
+    }
+
+    @Test
+    public void shouldReadDatumsSpanningLines() throws Exception {
+        assertThat(
+                read("(define (f x)\n  (if (< x 2)\n      x\n      \"a\n b\"))\n42 'a\n\n(f\n 3)"),
+                is(read(new ExpressionReader(
+                        new StringReader("(define (f x) (if (< x 2) x \"a\n b\")) 42 'a (f 3)"),
+                        SyntaxReader.Grammar.PROGRAM))));
+    }
+
+    @Test
+    public void shouldReadDatumsOnOneLine() throws Exception {
+        StringBuilder program = new StringBuilder();
+        for (int index = 0; index < 10000; ++index) {
+            program.append(String.format("(define x%s \"(%s\") ", index, index));
+        }
+
+        List<String> result = read(program.toString());
+        assertThat(result.size(), is(10000));
+        assertThat(result.get(9999), is("(define x9999 \"(9999\")"));
+    }
+
+    @Test
+    public void shouldReadAtomsAtEndOfInput() throws Exception {
+        assertThat(read("1 abc"), is(read(new ExpressionReader(new StringReader("1 abc"), SyntaxReader.Grammar.PROGRAM))));
+    }
+}
@@ -0,0 +1,72 @@
+package scheme;
+
+import org.junit.Test;
+
+import scheme.expression.SymbolExpression;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class GlobalEnvironmentTest {
+    private static final Evaluator[] EVALUATORS = {
+            Evaluators.TREE_WALKING,
+            Evaluators.ANALYZING,
+            new ExplicitControlEvaluator(),
+            Evaluators.BYTECODE
+    };
+
+    private static String evalProgram(Evaluator evaluator, Environment environment, String program) {
+        List<Expression> expressions = Syntax.PROGRAM.apply(program).value();
+
+        Expression result = Core.UNIT;
+        for (Expression expression : expressions) {
+            result = evaluator.eval(expression, environment);
+        }
+
+        return result.toString();
+    }
+
+
+    @Test
+    public void shouldUpdateCellsInPlace() throws Exception {
+        for (Evaluator evaluator : EVALUATORS) {
+            Environment environment = new GlobalEnvironment();
+
+            evalProgram(evaluator, environment, "(define x 1) (define (f) (+ x (g))) (define (g) 10)");
+            assertThat(evalProgram(evaluator, environment, "(f)"), is("11"));
+
+            evalProgram(evaluator, environment, "(set! x 2) (define (g) 20)");
+            assertThat(evalProgram(evaluator, environment, "(f)"), is("22"));
+        }
+    }
+
+    @Test
+    public void shouldBindCellsBeforeDefinition() throws Exception {
+        GlobalEnvironment environment = new GlobalEnvironment();
+        Cell cell = environment.cell(SymbolExpression.make("x"));
+        assertThat(cell.isBound(), is(false));
+
+        evalProgram(Evaluators.ANALYZING, environment, "(define x 42)");
+        assertThat(cell.value().toString(), is("42"));
+    }
+
+    @Test
+    public void shouldKeepEnvironmentsApart() throws Exception {
+        Environment first = new GlobalEnvironment();
+        Environment second = new GlobalEnvironment();
+
+        evalProgram(Evaluators.TREE_WALKING, first, "(define car cdr)");
+        assertThat(evalProgram(Evaluators.TREE_WALKING, first, "(car '(1 2))"), is("(2)"));
+        assertThat(evalProgram(Evaluators.TREE_WALKING, second, "(car '(1 2))"), is("1"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectAssignmentOfUndefined() throws Exception {
+        GlobalEnvironment environment = new GlobalEnvironment();
+        environment.cell(SymbolExpression.make("x"));
+
+        evalProgram(Evaluators.TREE_WALKING, environment, "(set! x 1)");
+    }
+}
@@ -0,0 +1,139 @@
+package scheme;
+
+import org.junit.Test;
+import scheme.expression.CombinationExpression;
+import scheme.syntax.Parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SyntaxReaderTest {
+    private static final String SRC_INTERPRETER = "src/main/scheme/interpreter/applicative.scm";
+
+    private static final String PROGRAM = String.join("\n",
+            "(define (f x) (if (< x 2) x (+ (f (- x 1)) (f (- x 2)))))",
+            "(define y 1.5) (define 12 .5) (set! y 42.)",
+            "(lambda () 1) (lambda (a b) a b) (lambda x x)",
+            "'x '() '(a 'b (if c d e)) (quote (quote x)) (quote 'x) (quote x y)",
+            "( let ( (a 1) (b \"two words\") ) (begin a b) ) (let () 1)",
+            "(cond ((= 1 2) 3) (else 4)) (if a b) (if a b c)",
+            "(define-record-type point (make-point x y) point? (x point-x) (y point-y set-point-y!))",
+            "(define (g) (define h 1) h) (define h) (define 'a 1)",
+            "() \"\" (+ -1 - <=>?!) 123456789012345678901234567890",
+            "(letter ifs iffy (if) (define) (quote))");
+
+    private static List<String> read(SyntaxReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (Expression expression; (expression = reader.read()) != null; ) {
+            result.add(describe(expression));
+        }
+
+        return result;
+    }
+
+    private static List<String> read(String program, Parser<List<Expression>> syntax) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (ExpressionReader reader = new ExpressionReader(new BufferedReader(new StringReader(program)), syntax)) {
+            for (Expression expression; (expression = reader.nextExpression()) != null; ) {
+                result.add(describe(expression));
+            }
+        }
+
+        return result;
+    }
+
+    private static String describe(Expression expression) {
+        return String.format("%s %s", expression.getClass().getSimpleName(), expression);
+    }
+
+    @Test
+    public void shouldReadAsProgram() throws Exception {
+        assertThat(
+                read(new SyntaxReader(new StringReader(PROGRAM), SyntaxReader.Grammar.PROGRAM)),
+                is(read(PROGRAM, Syntax.PROGRAM)));
+    }
+
+    @Test
+    public void shouldReadAsInterpretedProgram() throws Exception {
+        assertThat(
+                read(new SyntaxReader(new StringReader(PROGRAM), SyntaxReader.Grammar.INTERPRETED_PROGRAM)),
+                is(read(PROGRAM, Syntax.INTERPRETED_PROGRAM)));
+    }
+
+    @Test
+    public void shouldReadInterpreterAsProgram() throws Exception {
+        String program = new String(Files.readAllBytes(Paths.get(SRC_INTERPRETER)), StandardCharsets.UTF_8);
+
+        List<String> result = read(new SyntaxReader(new StringReader(program), SyntaxReader.Grammar.PROGRAM));
+        assertThat(result.isEmpty(), is(false));
+        assertThat(result, is(read(program, Syntax.PROGRAM)));
+    }
+
+    @Test
+    public void shouldReadDeeplyNestedLists() throws Exception {
+        int depth = 100000;
+
+        StringBuilder program = new StringBuilder();
+        for (int index = 0; index < depth; ++index) {
+            program.append("(f ");
+        }
+
+        program.append('x');
+        for (int index = 0; index < depth; ++index) {
+            program.append(')');
+        }
+
+        Expression expression =
+                new SyntaxReader(new StringReader(program.toString()), SyntaxReader.Grammar.PROGRAM).read();
+
+        int result = 0;
+        while (expression instanceof CombinationExpression) {
+            expression = ((CombinationExpression) expression).rest().car();
+            ++result;
+        }
+
+        assertThat(result, is(depth));
+        assertThat(expression.toString(), is("x"));
+    }
+
+    @Test
+    public void shouldRejectMalformedInput() throws Exception {
+        for (String program : new String[]{"(a b", ")", "12abc", "''a", "\"a", "a#b"}) {
+            SyntaxReader reader = new SyntaxReader(new StringReader(program), SyntaxReader.Grammar.PROGRAM);
+            try {
+                reader.read();
+                fail(program);
+            } catch (RuntimeException exception) {
+                /*NOP*/
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadOnAfterMalformedInput() throws Exception {
+        SyntaxReader reader = new SyntaxReader(
+                new StringReader("(+ 1 2)\n)\n#t (begin #t (display \")\") (newline))\n(a (b ''c (d)) e) (+ 3 4)"),
+                SyntaxReader.Grammar.PROGRAM);
+        assertThat(reader.read().toString(), is("(+ 1 2)"));
+        for (int index = 0; index < 4; ++index) {
+            try {
+                reader.read();
+                fail();
+            } catch (RuntimeException exception) {
+                /*NOP*/
+            }
+        }
+
+        assertThat(reader.read().toString(), is("(+ 3 4)"));
+        assertNull(reader.read());
+    }
+}
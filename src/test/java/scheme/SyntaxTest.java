@@ -1,6 +1,7 @@
 package scheme;
 
 import org.junit.Test;
+import scheme.expression.CombinationExpression;
 import scheme.syntax.Result;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -434,4 +435,18 @@ public class SyntaxTest {
 //        Expression x = Syntax.EXPRESSION.apply("(let ((x 1)) (foo) x bar)").value();
 //        System.out.printf("%s: %s%n", x.getClass().getSimpleName(), x);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotReuseParsesBetweenApplications() throws Exception {
+        StringBuilder input = new StringBuilder("(f (g 1))");
+        assertThat(Syntax.PROGRAM.apply(input, 0).value().toString(), is("[(f (g 1))]"));
+
+        input.setCharAt(4, 'h');
+        assertThat(Syntax.PROGRAM.apply(input, 0).value().toString(), is("[(f (h 1))]"));
+
+        String program = "(f '(a b))";
+        assertNotSame(
+                ((CombinationExpression) Syntax.PROGRAM.apply(program).value().get(0)).rest().car(),
+                ((CombinationExpression) Syntax.PROGRAM.apply(program).value().get(0)).rest().car());
+    }
+}
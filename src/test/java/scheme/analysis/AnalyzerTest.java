@@ -0,0 +1,114 @@
+package scheme.analysis;
+
+import org.junit.Test;
+import scheme.*;
+
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AnalyzerTest {
+    private final Environment environment =
+            new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+
+    private String evalProgram(String program) {
+        Expression result = Core.UNIT;
+        for (Expression expression : Syntax.PROGRAM.apply(program).value()) {
+            result = Analyzer.analyze(expression).eval(environment);
+        }
+
+        return result.toString();
+    }
+
+
+    @Test
+    public void shouldSpecializeArithmetic() throws Exception {
+        evalProgram("(define (f x y) (list (+ x y) (- x y) (* x y) (< x y) (= x y)))");
+
+        assertThat(evalProgram("(f 3 2)"), is("(5 1 6 false false)"));
+        assertThat(evalProgram("(f 1.5 2.0)"), is("(3.5 -0.5 3.0 true false)"));
+        assertThat(evalProgram("(f 2 0.5)"), is("(2.5 1.5 1.0 false false)"));
+        assertThat(evalProgram("(f 4 4)"), is("(8 0 16 false true)"));
+    }
+
+    @Test
+    public void shouldRespectRedefinedOperators() throws Exception {
+        evalProgram("(define (f x y) (+ x y))");
+        assertThat(evalProgram("(f 1 2)"), is("3"));
+
+        evalProgram("(define (+ x y) (* x y))");
+        assertThat(evalProgram("(f 3 4)"), is("12"));
+    }
+
+    @Test
+    public void shouldRespectShadowedOperators() throws Exception {
+        assertThat(evalProgram("((lambda (< x y) (< x y)) (lambda (x y) 'shadowed) 1 2)"), is("shadowed"));
+    }
+
+    @Test
+    public void shouldCacheGlobalOperators() throws Exception {
+        evalProgram("(define (double x) (+ x x)) (define (f n) (if (= n 0) 0 (double (f (- n 1)))))");
+        evalProgram("(f 1)");
+
+        CallSites.reset();
+        CallSites.setEnabled(true);
+        try {
+            assertThat(evalProgram("(f 10)"), is("0"));
+        } finally {
+            CallSites.setEnabled(false);
+        }
+
+        assertThat(CallSites.misses(), is(1L));
+        assertThat(CallSites.hits() > 0, is(true));
+        assertThat(CallSites.globals(), is(0L));
+    }
+
+    @Test
+    public void shouldCountGlobalCellReadsApart() throws Exception {
+        Environment global = new GlobalEnvironment();
+        for (Expression expression : Syntax.PROGRAM.apply("(define (double x) (* 2 x))").value()) {
+            Analyzer.analyze(expression).eval(global);
+        }
+
+        CallSites.reset();
+        CallSites.setEnabled(true);
+        try {
+            Analyzer.analyze(Syntax.PROGRAM.apply("(double (double 1))").value().get(0)).eval(global);
+        } finally {
+            CallSites.setEnabled(false);
+        }
+
+        assertThat(CallSites.hits(), is(0L));
+        assertThat(CallSites.misses(), is(0L));
+        assertThat(CallSites.globals() > 0, is(true));
+    }
+
+    @Test
+    public void shouldNotCountUnlessEnabled() throws Exception {
+        evalProgram("(define (double x) (+ x x))");
+
+        CallSites.reset();
+        assertThat(evalProgram("(double (double 1))"), is("4"));
+        assertThat(CallSites.hits() + CallSites.misses() + CallSites.globals(), is(0L));
+    }
+
+    @Test
+    public void shouldInvalidateCachedOperators() throws Exception {
+        evalProgram("(define (g) 1) (define (f) (g))");
+        assertThat(evalProgram("(f)"), is("1"));
+
+        evalProgram("(define (g) 2)");
+        assertThat(evalProgram("(f)"), is("2"));
+
+        evalProgram("(set! g (lambda () 3))");
+        assertThat(evalProgram("(f)"), is("3"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectNonNumbers() throws Exception {
+        evalProgram("(define (f x y) (+ x y))");
+        evalProgram("(f 1 2)");
+        evalProgram("(f 1 'a)");
+    }
+}
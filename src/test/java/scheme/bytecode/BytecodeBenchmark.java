@@ -0,0 +1,73 @@
+package scheme.bytecode;
+
+import scheme.*;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compares the evaluators on the `fib` and `tak` procedure-call benchmarks, reporting the best of the repetitions:
+ * <pre>
+ * java -cp ... scheme.bytecode.BytecodeBenchmark [repetitions]
+ * </pre>
+ * Run with `-Dscheme.tier.analyze=2` to let compound procedures promote themselves to faster tiers as they are called
+ * (see {@link scheme.procedure.Tiering}).
+ */
+public final class BytecodeBenchmark {
+    private static final String FIB = "" +
+            "(define (fib n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))";
+
+    private static final String TAK = "" +
+            "(define (tak x y z) (if (not (< y x)) z (tak (tak (- x 1) y z) (tak (- y 1) z x) (tak (- z 1) x y))))";
+
+    private static final String[][] BENCHMARKS = {
+            {"fib", FIB, "(fib 22)"},
+            {"tak", TAK, "(tak 18 12 6)"}
+    };
+
+    private static final String[] NAMES = {"tree", "analyzing", "bytecode"};
+
+    private static Environment define(Evaluator evaluator, String definition) {
+        Environment environment = new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+        for (Expression expression : Syntax.PROGRAM.apply(definition).value()) {
+            evaluator.eval(expression, environment);
+        }
+
+        return environment;
+    }
+
+    private static long measure(Evaluator evaluator, Environment environment, String call) {
+        List<Expression> expressions = Syntax.PROGRAM.apply(call).value();
+
+        long start = System.nanoTime();
+        for (Expression expression : expressions) {
+            evaluator.eval(expression, environment);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] arguments) {
+        int repetitions = arguments.length > 0 ? Integer.parseInt(arguments[0]) : 5;
+
+        for (String[] benchmark : BENCHMARKS) {
+            long baseline = 0;
+            for (String name : NAMES) {
+                Evaluator evaluator = Evaluators.named(name);
+                Environment environment = define(evaluator, benchmark[1]);
+
+                long best = Long.MAX_VALUE;
+                for (int repetition = 0; repetition < repetitions; ++repetition) {
+                    best = Math.min(best, measure(evaluator, environment, benchmark[2]));
+                }
+
+                if (baseline == 0) {
+                    baseline = best;
+                }
+
+                System.out.printf("%-4s %-10s %8.1f ms  x%.2f%n",
+                        benchmark[0], name, best / 1e6, (double) baseline / best);
+            }
+        }
+    }
+}
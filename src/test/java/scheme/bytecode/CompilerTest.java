@@ -0,0 +1,36 @@
+package scheme.bytecode;
+
+import org.junit.Test;
+import scheme.Syntax;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class CompilerTest {
+    private static String disassembleLambda(String program) {
+        Code code = Compiler.compile(Syntax.PROGRAM.apply(program).value().get(0));
+
+        return ((Code) code.constants()[0]).disassemble();
+    }
+
+
+    @Test
+    public void shouldCompileSuperinstructions() throws Exception {
+        String code = disassembleLambda("(lambda (n) (if (< n 2) n (+ (f (- n 1)) 1)))");
+
+        assertThat(code, containsString("JUMP_UNLESS_COMPARE"));
+        assertThat(code, containsString("LOCAL0 0"));
+        assertThat(code, containsString("CALL_GLOBAL"));
+        assertThat(code, containsString("TAIL_CALL_GLOBAL"));
+    }
+
+    @Test
+    public void shouldCompileTailCalls() throws Exception {
+        String code = disassembleLambda("(lambda (g n) (g n))");
+
+        assertThat(code, containsString("TAIL_CALL 1"));
+        assertThat(code, is(not(containsString("RETURN"))));
+    }
+}
@@ -0,0 +1,51 @@
+package scheme.expression;
+
+import org.junit.Test;
+import scheme.Core;
+import scheme.Expression;
+import scheme.Syntax;
+import scheme.Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SymbolExpressionTest {
+    @Test
+    public void shouldInternSymbols() throws Exception {
+        assertThat(SymbolExpression.make("x") == SymbolExpression.make(new String("x")), is(true));
+        assertThat(SymbolExpression.make("x") == SymbolExpression.make("y"), is(false));
+        assertThat(SymbolExpression.make("x").hashCode(), is("x".hashCode()));
+    }
+
+    @Test
+    public void shouldShareParsedSymbolsWithCore() throws Exception {
+        Expression parsed = Syntax.PROGRAM.apply("false").value().get(0);
+
+        assertThat(parsed == Core.FALSE, is(true));
+        assertThat(Utilities.isFalse(parsed), is(true));
+    }
+
+    @Test
+    public void shouldInternConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SymbolExpression>> results = new ArrayList<>();
+            for (int count = 0; count < 64; ++count) {
+                results.add(executor.submit((Callable<SymbolExpression>) () -> SymbolExpression.make("concurrent")));
+            }
+
+            for (Future<SymbolExpression> result : results) {
+                assertThat(result.get() == SymbolExpression.make("concurrent"), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package scheme.jvm;
+
+import org.junit.Test;
+import scheme.*;
+import scheme.expression.CombinationExpression;
+import scheme.expression.IntegralExpression;
+import scheme.expression.SymbolExpression;
+import scheme.procedure.CompoundProcedure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JvmCompilerTest {
+    private final Environment environment =
+            new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+
+    private Expression evalProgram(String program) {
+        Expression result = Core.UNIT;
+        for (Expression expression : Syntax.PROGRAM.apply(program).value()) {
+            result = expression.eval(environment);
+        }
+
+        return result;
+    }
+
+    private Procedure compile(String program, String name) {
+        evalProgram(program);
+
+        return JvmCompiler.compile((CompoundProcedure) evalProgram(name));
+    }
+
+    private static String apply(Procedure procedure, long... arguments) {
+        List<Expression> expressions = new ArrayList<>();
+        for (long argument : arguments) {
+            expressions.add(IntegralExpression.make(argument));
+        }
+
+        return procedure.apply(CombinationExpression.make(expressions)).toString();
+    }
+
+
+    @Test
+    public void shouldCompileRecursiveProcedure() throws Exception {
+        Procedure fib = compile("(define (fib n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))", "fib");
+
+        assertThat(fib, instanceOf(CompiledProcedure.class));
+        assertThat(apply(fib, 20), is("6765"));
+    }
+
+    @Test
+    public void shouldCompileTailCallsIntoLoop() throws Exception {
+        Procedure loop = compile("(define (loop n acc) (if (= n 0) acc (loop (- n 1) (+ acc 1))))", "loop");
+
+        assertThat(apply(loop, 1000000, 0), is("1000000"));
+    }
+
+    @Test
+    public void shouldPromoteOverflowingIntegers() throws Exception {
+        Procedure fact = compile("(define (fact n) (if (= n 0) 1 (* n (fact (- n 1)))))", "fact");
+
+        assertThat(apply(fact, 20), is("2432902008176640000"));
+        assertThat(apply(fact, 25), is("15511210043330985984000000"));
+    }
+
+    @Test
+    public void shouldCompileLocalVariables() throws Exception {
+        Procedure procedure = compile("" +
+                "(define (f x)" +
+                "  (let ((y (* x 2)))" +
+                "    (set! y (+ y 1))" +
+                "    (cond ((> y 10) 'big) (else y))))", "f");
+
+        assertThat(apply(procedure, 3), is("7"));
+        assertThat(apply(procedure, 30), is("big"));
+    }
+
+    @Test
+    public void shouldSeeRedefinedGlobals() throws Exception {
+        Procedure procedure = compile("(define (g) 1) (define (f) (g))", "f");
+        assertThat(apply(procedure), is("1"));
+
+        evalProgram("(define (g) 2)");
+        assertThat(apply(procedure), is("2"));
+
+        evalProgram("(set! g (lambda () 3))");
+        assertThat(apply(procedure), is("3"));
+    }
+
+    @Test
+    public void shouldSeeAssignedFrameVariables() throws Exception {
+        FrameEnvironment frame = new FrameEnvironment(
+                environment,
+                new SymbolExpression[]{SymbolExpression.make("k")},
+                new Expression[]{IntegralExpression.make(1)});
+
+        Procedure procedure = JvmCompiler.compile(
+                (CompoundProcedure) Syntax.PROGRAM.apply("(lambda (x) (+ x k))").value().get(0).eval(frame));
+        assertThat(procedure, instanceOf(CompiledProcedure.class));
+        assertThat(apply(procedure, 10), is("11"));
+
+        frame.set(0, 0, IntegralExpression.make(100));
+        assertThat(apply(procedure, 10), is("110"));
+
+        frame.define(0, IntegralExpression.make(1000));
+        assertThat(apply(procedure, 10), is("1010"));
+    }
+
+    @Test
+    public void shouldCallRedefinedSelf() throws Exception {
+        Procedure procedure = compile("(define (f n) (if (= n 0) 0 (f (- n 1))))", "f");
+
+        evalProgram("(define (f n) 'redefined)");
+        assertThat(apply(procedure, 1), is("redefined"));
+    }
+
+    @Test
+    public void shouldNotCompileInternalDefinitions() throws Exception {
+        evalProgram("(define (f x) (define y x) y)");
+        CompoundProcedure procedure = (CompoundProcedure) evalProgram("f");
+
+        assertThat(JvmCompiler.compile(procedure), sameInstance((Procedure) procedure));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldCheckArity() throws Exception {
+        apply(compile("(define (f x) x)", "f"), 1, 2);
+    }
+}
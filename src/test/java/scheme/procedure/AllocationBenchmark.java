@@ -0,0 +1,65 @@
+package scheme.procedure;
+
+import scheme.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Reports the bytes allocated by a call `(f n n n)` of a compound procedure of three parameters,
+ * as the difference between a loop making the call and the same loop without it,
+ * together with the bytes allocated per iteration of a counting loop and of a loop summing integers:
+ * <pre>
+ * java -cp ... scheme.procedure.AllocationBenchmark [iterations]
+ * </pre>
+ * Run with `-Dscheme.tier.analyze=2` to measure the evaluators together with tiering.
+ */
+public final class AllocationBenchmark {
+    private static final String DEFINITIONS = "" +
+            "(define (f a b c) a) " +
+            "(define (calling n) (if (= n 0) 0 (begin (f n n n) (calling (- n 1))))) " +
+            "(define (idle n) (if (= n 0) 0 (begin n (idle (- n 1))))) " +
+            "(define (sum n acc) (if (= n 0) acc (sum (- n 1) (+ acc n))))";
+
+    private static final String[] NAMES = {"tree", "analyzing", "bytecode"};
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long allocated(Evaluator evaluator, Environment environment, String program) {
+        List<Expression> expressions = Syntax.PROGRAM.apply(program).value();
+
+        long thread = Thread.currentThread().getId();
+        long start = THREADS.getThreadAllocatedBytes(thread);
+        for (Expression expression : expressions) {
+            evaluator.eval(expression, environment);
+        }
+
+        return THREADS.getThreadAllocatedBytes(thread) - start;
+    }
+
+    public static void main(String[] arguments) {
+        int iterations = arguments.length > 0 ? Integer.parseInt(arguments[0]) : 100000;
+
+        for (String name : NAMES) {
+            Evaluator evaluator = Evaluators.named(name);
+            Environment environment = new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+            for (Expression expression : Syntax.PROGRAM.apply(DEFINITIONS).value()) {
+                evaluator.eval(expression, environment);
+            }
+
+            long calling = Long.MAX_VALUE;
+            long idle = Long.MAX_VALUE;
+            long sum = Long.MAX_VALUE;
+            for (int repetition = 0; repetition < 5; ++repetition) {
+                calling = Math.min(calling, allocated(evaluator, environment, String.format("(calling %d)", iterations)));
+                idle = Math.min(idle, allocated(evaluator, environment, String.format("(idle %d)", iterations)));
+                sum = Math.min(sum, allocated(evaluator, environment, String.format("(sum %d 0)", iterations)));
+            }
+
+            System.out.printf("%-10s %8.1f bytes/call %8.1f bytes/count %8.1f bytes/sum%n", name,
+                    (double) (calling - idle) / iterations, (double) idle / iterations, (double) sum / iterations);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package scheme.procedure;
+
+import org.junit.Test;
+import scheme.Core;
+import scheme.Expression;
+import scheme.Procedure;
+import scheme.expression.CombinationExpression;
+import scheme.expression.IntegralExpression;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PrimitiveProcedureTest {
+    private static Expression integral(long value) {
+        return IntegralExpression.make(value);
+    }
+
+
+    @Test
+    public void shouldApplyThroughAnyEntryPoint() throws Exception {
+        Procedure add = Core.ADD;
+
+        assertThat(add.apply0().toString(), is("0"));
+        assertThat(add.apply2(integral(1), integral(2)).toString(), is("3"));
+        assertThat(add.apply3(integral(1), integral(2), integral(3)).toString(), is("6"));
+        assertThat(add.apply(new Expression[]{integral(1), integral(2)}).toString(), is("3"));
+        assertThat(add.apply(CombinationExpression.make(Arrays.asList(integral(1), integral(2)))).toString(), is("3"));
+
+        assertThat(Core.CAR.apply(new Expression[]{Core.LIST.apply2(integral(1), integral(2))}).toString(), is("1"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectTooManyArguments() throws Exception {
+        Core.CAR.apply2(Core.LIST.apply1(integral(1)), integral(2));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectTooFewArguments() throws Exception {
+        Core.CONS.apply1(integral(1));
+    }
+}
@@ -0,0 +1,83 @@
+package scheme.procedure;
+
+import org.junit.After;
+import org.junit.Test;
+import scheme.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TieringTest {
+    private final Environment environment =
+            new DefaultEnvironment(new DefaultEnvironment(Environment.EMPTY), new HashMap<>());
+
+    private final List<String> transitions = new ArrayList<>();
+    private final TierListener listener = (CompoundProcedure procedure, Tier from, Tier to) ->
+            transitions.add(String.format("%s %s->%s", procedure.invocations(), from, to));
+
+    {
+        Tiering.configure(2, 1000);
+        Tiering.addListener(listener);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Tiering.removeListener(listener);
+        Tiering.reset();
+    }
+
+    private Expression evalProgram(String program) {
+        Expression result = Core.UNIT;
+        for (Expression expression : Syntax.PROGRAM.apply(program).value()) {
+            result = expression.eval(environment);
+        }
+
+        return result;
+    }
+
+
+    @Test
+    public void shouldPromoteThroughTiers() throws Exception {
+        evalProgram("(define (count n) (if (= n 0) 'done (count (- n 1))))");
+        CompoundProcedure procedure = (CompoundProcedure) evalProgram("count");
+        assertThat(procedure.tier(), is(Tier.INTERPRETED));
+
+        assertThat(evalProgram("(count 5000)").toString(), is("done"));
+        assertThat(procedure.tier(), is(Tier.COMPILED));
+        assertThat(transitions, is(Arrays.asList("2 INTERPRETED->ANALYZED", "1000 ANALYZED->COMPILED")));
+
+        assertThat(evalProgram("(count 10)").toString(), is("done"));
+    }
+
+    @Test
+    public void shouldNotPromoteUnlessConfigured() throws Exception {
+        Tiering.configure(0, 1000);
+        evalProgram("(define (count n) (if (= n 0) 'done (count (- n 1))))");
+        CompoundProcedure procedure = (CompoundProcedure) evalProgram("count");
+
+        assertThat(evalProgram("(count 5000)").toString(), is("done"));
+        assertThat(procedure.tier(), is(Tier.INTERPRETED));
+        assertThat(transitions.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldStayAnalyzedWhenNotCompilable() throws Exception {
+        evalProgram("" +
+                "(define (sum n)" +
+                "  (define (iter i acc) (if (> i n) acc (iter (+ i 1) (+ acc i))))" +
+                "  (iter 1 0))");
+        CompoundProcedure procedure = (CompoundProcedure) evalProgram("sum");
+
+        for (int count = 0; count < 1500; ++count) {
+            assertThat(evalProgram("(sum 10)").toString(), is("55"));
+        }
+
+        assertThat(procedure.tier(), is(Tier.ANALYZED));
+        assertThat(transitions.get(0), is("2 INTERPRETED->ANALYZED"));
+    }
+}
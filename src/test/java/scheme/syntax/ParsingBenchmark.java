@@ -0,0 +1,61 @@
+package scheme.syntax;
+
+import scheme.Syntax;
+
+/**
+ * Measures parsing programs of increasing nesting depth, reporting the best of the repetitions:
+ * <pre>
+ * java -cp ... scheme.syntax.ParsingBenchmark [depth] [repetitions]
+ * </pre>
+ * The forms nest in positions that a special form parses before failing and leaving the whole form
+ * to be parsed as a combination (a one-armed `if`, a `set!` with an extra operand), which takes time
+ * exponential in the depth unless subexpressions are memoized.
+ */
+public final class ParsingBenchmark {
+    private static final String[][] SHAPES = {
+            {"if", "(if c ", " x)"},
+            {"set!", "(set! x ", " 0)"},
+            {"lambda", "(lambda (x) ", ")"}
+    };
+
+    private static String generate(String[] shape, int depth) {
+        StringBuilder result = new StringBuilder();
+        for (int level = 0; level < depth; ++level) {
+            result.append(shape[1]);
+        }
+
+        result.append("x");
+        for (int level = 0; level < depth; ++level) {
+            result.append(shape[2]);
+        }
+
+        return result.toString();
+    }
+
+    private static long measure(String program) {
+        long start = System.nanoTime();
+        if (Syntax.PROGRAM.apply(program).isFailure()) {
+            throw new IllegalStateException(String.format("Not parsed: %s", program));
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] arguments) {
+        int depth = arguments.length > 0 ? Integer.parseInt(arguments[0]) : 64;
+        int repetitions = arguments.length > 1 ? Integer.parseInt(arguments[1]) : 5;
+
+        for (String[] shape : SHAPES) {
+            for (int level = 2; level <= depth; level *= 2) {
+                String program = generate(shape, level);
+
+                long best = Long.MAX_VALUE;
+                for (int repetition = 0; repetition < repetitions; ++repetition) {
+                    best = Math.min(best, measure(program));
+                }
+
+                System.out.printf("%-6s depth %4d %10.3f ms%n", shape[0], level, best / 1e6);
+            }
+        }
+    }
+}
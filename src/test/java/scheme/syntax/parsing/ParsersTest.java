@@ -1,6 +1,7 @@
 package scheme.syntax.parsing;
 
 import org.junit.Test;
+import scheme.syntax.Parser;
 import scheme.syntax.Parsers;
 import scheme.syntax.Result;
 
@@ -31,6 +32,16 @@ public class ParsersTest {
         assertSuccess(Parsers.character('x').apply("xx"), "x", 'x');
     }
 
+    @Test
+    public void shouldParseFromPosition() throws Exception {
+        Result<String> result = Parsers.string("bc").apply("abcd", 1);
+        assertThat(result.position(), is(3));
+        assertSuccess(result, "d", "bc");
+
+        assertFailure(Parsers.pattern(Pattern.compile("^\\d+")).apply("a12", 0), "a12");
+        assertSuccess(Parsers.pattern(Pattern.compile("^\\d+")).apply("a12", 1), "", "12");
+    }
+
     @Test
     public void shouldAllowToParseCharacterWhenPredicateIsSatisfied() throws Exception {
         System.out.println(
@@ -70,6 +81,25 @@ public class ParsersTest {
                         Parsers.character('c')).apply("abcd"));
     }
 
+    @Test
+    public void shouldDispatchAnyOfOnFirstSets() throws Exception {
+        Parser<String> keyword = Parsers.parenthesised(
+                Parsers.after(Parsers.optional(Parsers.whitespaces()), Parsers.after(Parsers.string("if"), Parsers.letters())));
+        assertThat(keyword.first().mayStartWith('('), is(true));
+        assertThat(keyword.first().mayStartWith('i'), is(false));
+        assertThat(keyword.first().lookahead("( iffy)", 0) >= 0, is(true));
+        assertThat(keyword.first().lookahead("(f x)", 0), is(-1));
+
+        Parser<String> parser = Parsers.anyOf(
+                Parsers.string("ab"),
+                Parsers.string("ac"),
+                Parsers.asString(Parsers.zeroOrMore(Parsers.digit())));
+        assertSuccess(parser.apply("acd"), "d", "ac");
+        assertSuccess(parser.apply("12x"), "x", "12");
+        assertSuccess(parser.apply("x"), "x", "");
+        assertSuccess(parser.apply(""), "", "");
+    }
+
     @Test
     public void shouldAllowToParseAs() throws Exception {
         System.out.println(